@@ -0,0 +1,25 @@
+package com.netflix.archaius.api;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link Property} of a boolean value that is read without boxing through {@link #getAsBoolean()}.  The property
+ * always has a value since a default is required when it is created.
+ *
+ * @see PropertyContainer#asBooleanProperty(boolean)
+ */
+public interface BooleanProperty extends Property<Boolean>, BooleanSupplier {
+    /**
+     * Return the most recent value of the property without allocating.
+     */
+    @Override
+    boolean getAsBoolean();
+
+    /**
+     * Return the most recent value of the property, boxed.  Prefer {@link #getAsBoolean()} on hot paths.
+     */
+    @Override
+    default Boolean get() {
+        return getAsBoolean();
+    }
+}
@@ -257,6 +257,37 @@ public interface Config extends PropertySource {
      */
     <T> T accept(Visitor<T> visitor);
     
+    /**
+     * Return a number that increases whenever the content of this config changes, so that data derived from the config
+     * can be revalidated by comparing generations instead of registering a listener.  An update that doesn't change
+     * any value doesn't change the generation.
+     *
+     * @return Current generation, or -1 if this config doesn't track generations
+     */
+    default long getGeneration() {
+        return -1;
+    }
+
+    /**
+     * Return a number that increases whenever a property starting with the prefix changes.  Configs that don't track
+     * changes per prefix return their global generation, which increases at least as often.
+     *
+     * @return Current generation of the prefix, or -1 if this config doesn't track generations
+     */
+    default long getGeneration(String prefix) {
+        return getGeneration();
+    }
+
+    /**
+     * Return an immutable view of the current content of this config.  Reads from the snapshot are consistent with
+     * each other regardless of concurrent updates to the config.
+     *
+     * @see ConfigSnapshot
+     */
+    default ConfigSnapshot snapshot() {
+        throw new UnsupportedOperationException();
+    }
+
     default String resolve(String value) {
         throw new UnsupportedOperationException();
     }
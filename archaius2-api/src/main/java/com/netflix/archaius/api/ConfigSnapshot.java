@@ -0,0 +1,61 @@
+package com.netflix.archaius.api;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Immutable view of a {@link Config} at a point in time, obtained from {@link Config#snapshot()}.  Every read from a
+ * snapshot, including interpolation of references to other properties, sees the same content no matter how the config
+ * changes after it was taken, so related properties can be read consistently with each other.
+ * <p>
+ * Values are decoded with the config's {@link Decoder} and {@link StrInterpolator} as of when the snapshot was taken.
+ */
+public interface ConfigSnapshot {
+    /**
+     * @return {@link Config#getGeneration()} of the content the snapshot was taken from.  Snapshots of the same config
+     * with the same generation have the same content.  -1 if the config doesn't track generations.
+     */
+    long getGeneration();
+
+    /**
+     * Return the raw, un-interpolated, object associated with a key, or null if not present.
+     */
+    Object getRawProperty(String key);
+
+    boolean containsKey(String key);
+
+    /**
+     * @return An unmodifiable Iterable of all property names in the snapshot
+     */
+    Iterable<String> keys();
+
+    /**
+     * Return the interpolated string value of each of the keys present in the snapshot.  Keys not present are omitted
+     * from the returned map.
+     */
+    Map<String, String> getAll(Collection<String> keys);
+
+    String getString(String key, String defaultValue);
+
+    Integer getInteger(String key, Integer defaultValue);
+
+    Long getLong(String key, Long defaultValue);
+
+    Double getDouble(String key, Double defaultValue);
+
+    Boolean getBoolean(String key, Boolean defaultValue);
+
+    /**
+     * Get the property from the Decoder.  All basic data types as well any type
+     * will a valueOf or String constructor will be supported.
+     */
+    <T> T get(Class<T> type, String key, T defaultValue);
+
+    /**
+     * Get the property from the Decoder.  Use this method for polymorphic types such as collections.
+     *
+     * @see ArchaiusType#forListOf(Class)
+     */
+    <T> T get(Type type, String key, T defaultValue);
+}
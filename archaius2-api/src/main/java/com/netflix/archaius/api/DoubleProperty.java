@@ -0,0 +1,25 @@
+package com.netflix.archaius.api;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link Property} of a double value that is read without boxing through {@link #getAsDouble()}.  The property
+ * always has a value since a default is required when it is created.
+ *
+ * @see PropertyContainer#asDoubleProperty(double)
+ */
+public interface DoubleProperty extends Property<Double>, DoubleSupplier {
+    /**
+     * Return the most recent value of the property without allocating.
+     */
+    @Override
+    double getAsDouble();
+
+    /**
+     * Return the most recent value of the property, boxed.  Prefer {@link #getAsDouble()} on hot paths.
+     */
+    @Override
+    default Double get() {
+        return getAsDouble();
+    }
+}
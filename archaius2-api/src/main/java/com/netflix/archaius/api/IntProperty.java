@@ -0,0 +1,25 @@
+package com.netflix.archaius.api;
+
+import java.util.function.IntSupplier;
+
+/**
+ * {@link Property} of an int value that is read without boxing through {@link #getAsInt()}.  The property
+ * always has a value since a default is required when it is created.
+ *
+ * @see PropertyContainer#asIntProperty(int)
+ */
+public interface IntProperty extends Property<Integer>, IntSupplier {
+    /**
+     * Return the most recent value of the property without allocating.
+     */
+    @Override
+    int getAsInt();
+
+    /**
+     * Return the most recent value of the property, boxed.  Prefer {@link #getAsInt()} on hot paths.
+     */
+    @Override
+    default Integer get() {
+        return getAsInt();
+    }
+}
@@ -0,0 +1,25 @@
+package com.netflix.archaius.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * {@link Property} of a long value that is read without boxing through {@link #getAsLong()}.  The property
+ * always has a value since a default is required when it is created.
+ *
+ * @see PropertyContainer#asLongProperty(long)
+ */
+public interface LongProperty extends Property<Long>, LongSupplier {
+    /**
+     * Return the most recent value of the property without allocating.
+     */
+    @Override
+    long getAsLong();
+
+    /**
+     * Return the most recent value of the property, boxed.  Prefer {@link #getAsLong()} on hot paths.
+     */
+    @Override
+    default Long get() {
+        return getAsLong();
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.netflix.archaius.api;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -111,6 +114,49 @@ public interface Property<T> extends Supplier<T> {
         return () -> removeListener(listener);
     }
     
+    /**
+     * Subscribe for notification whenever the property value changes for as long as the owner is reachable.  The
+     * owner is only weakly referenced and the subscription is removed once it has been garbage collected, so the
+     * consumer must not hold a reference to it and is passed the owner instead, e.g.
+     * {@code property.subscribe(this, MyService::onTimeoutChanged)}.
+     *
+     * @param owner Object whose lifetime bounds the subscription
+     * @param consumer Consumer called with the owner and the new value
+     * @return Subscription that may be unsubscribed to no longer get change notifications
+     */
+    default <O> Subscription subscribe(O owner, BiConsumer<O, T> consumer) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Subscribe for notification once the property value has stopped changing for the debounce window.  Changes
+     * within the window are collapsed and only the latest value is passed to the consumer, on the executor.
+     *
+     * @param consumer Consumer called with the latest value
+     * @param window Time without changes after which the latest value is delivered
+     * @param unit Unit of the window
+     * @param executor Executor on which the consumer is called
+     * @return Subscription that may be unsubscribed to no longer get change notifications
+     */
+    default Subscription subscribeDebounced(Consumer<T> consumer, long window, TimeUnit unit, Executor executor) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Subscribe for notification of changes at most once per interval.  The first change after a quiet period is
+     * delivered immediately, and changes within the interval that follows are collapsed so that only the latest
+     * value is passed to the consumer, on the executor, at the end of the interval.
+     *
+     * @param consumer Consumer called with the latest value
+     * @param minInterval Minimum time between two calls to the consumer
+     * @param unit Unit of the interval
+     * @param executor Executor on which the consumer is called
+     * @return Subscription that may be unsubscribed to no longer get change notifications
+     */
+    default Subscription subscribeRateLimited(Consumer<T> consumer, long minInterval, TimeUnit unit, Executor executor) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Create a new Property object that will return the specified defaultValue if
      * this object's property is not found.
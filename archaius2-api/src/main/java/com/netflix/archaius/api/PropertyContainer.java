@@ -86,4 +86,32 @@ public interface PropertyContainer {
     <T> Property<T> asType(Class<T> type, T defaultValue);
     
     <T> Property<T> asType(Function<String, T> type, String defaultValue);
+
+    /**
+     * Parse the property as an int that can be read without boxing
+     */
+    default IntProperty asIntProperty(int defaultValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Parse the property as a long that can be read without boxing
+     */
+    default LongProperty asLongProperty(long defaultValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Parse the property as a double that can be read without boxing
+     */
+    default DoubleProperty asDoubleProperty(double defaultValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Parse the property as a boolean that can be read without boxing
+     */
+    default BooleanProperty asBooleanProperty(boolean defaultValue) {
+        throw new UnsupportedOperationException();
+    }
 }
\ No newline at end of file
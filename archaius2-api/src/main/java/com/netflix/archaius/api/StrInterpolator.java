@@ -60,8 +60,9 @@ public interface StrInterpolator {
     }
     
     /**
-     * Create a context though which a value may be resolved.  A different context should be created
-     * for each string being resolved since it tracks state to handle things like circular references.
+     * Create a context though which a value may be resolved.  A context may be used by a single thread
+     * to resolve several strings one after the other, such as all names generated by a cascade strategy,
+     * so any state used to handle things like circular references must be scoped to one resolve call.
      * 
      * <pre>
      * {@code
@@ -65,4 +65,12 @@ public @interface Configuration
      * bound to dynamic properties via PropertyFactory.
      */
     boolean     immutable() default false;
+
+    /**
+     * @return If true the mapped fields and setters are updated whenever the values of their
+     * properties change, and the {@link #postConfigure()} method is called again after each batch
+     * of updates.  Properties that are removed keep their last value.  Fields should be volatile
+     * for other threads to see updates.  The configured object is only weakly referenced.
+     */
+    boolean     dynamic() default false;
 }
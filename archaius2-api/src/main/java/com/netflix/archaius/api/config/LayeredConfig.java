@@ -34,6 +34,37 @@ public interface LayeredConfig extends Config {
     void addConfig(Layer layer, Config config);
     
     void addConfig(Layer layer, Config config, int position);
+
+    /**
+     * Add several Configs at the specified Layer, in order, as if {@link #addConfig(Layer, Config)} had been called
+     * for each of them.
+     *
+     * <p>
+     * Implementations should apply all configs in a single update that triggers a single onConfigUpdated event.
+     *
+     * @param layer
+     * @param configs
+     */
+    default void addConfigs(Layer layer, Collection<? extends Config> configs) {
+        configs.forEach(config -> addConfig(layer, config));
+    }
+
+    /**
+     * Replace the Configs at the specified Layer that have the same names as the provided configs, adding those for
+     * which there is no Config to replace.
+     *
+     * <p>
+     * Implementations should apply all configs in a single update that triggers a single onConfigUpdated event.
+     *
+     * @param layer
+     * @param configs
+     */
+    default void replaceConfigs(Layer layer, Collection<? extends Config> configs) {
+        configs.forEach(config -> {
+            removeConfig(layer, config.getName());
+            addConfig(layer, config);
+        });
+    }
     
     Optional<Config> removeConfig(Layer layer, String name);
     
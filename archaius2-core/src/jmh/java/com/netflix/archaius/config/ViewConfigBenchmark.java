@@ -0,0 +1,102 @@
+package com.netflix.archaius.config;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.api.config.CompositeConfig;
+import com.netflix.archaius.api.config.SettableConfig;
+import com.netflix.archaius.api.exceptions.ConfigException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of keeping many prefixed and private views in sync with a large composite config.  Every update
+ * of the composite refreshes each of its views, so {@link #updateParent} is dominated by how much work a view does per
+ * refresh.  Run with {@code -prof gc} (enabled by default in the jmh task) to compare the allocation rate per update.
+ * The heap retained by the views on top of the parent is measured with JOL after setup and again after the updates,
+ * and printed to the output of the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ViewConfigBenchmark {
+    @Param({"40000"})
+    int keys;
+
+    @Param({"300"})
+    int views;
+
+    private SettableConfig settable;
+    private CompositeConfig composite;
+    private long parentFootprint;
+    private final List<Config> prefixedViews = new ArrayList<>();
+    private final List<Config> privateViews = new ArrayList<>();
+    private int counter;
+
+    @Setup
+    public void setup() throws ConfigException {
+        settable = new DefaultSettableConfig();
+        for (int i = 0; i < keys; i++) {
+            settable.setProperty("prefix" + (i % views) + ".key" + i, "value" + i);
+        }
+
+        composite = DefaultCompositeConfig.builder()
+                .withConfig("settable", settable)
+                .build();
+        parentFootprint = GraphLayout.parseInstance(composite).totalSize();
+        for (int i = 0; i < views; i++) {
+            prefixedViews.add(composite.getPrefixedView("prefix" + i));
+            privateViews.add(composite.getPrivateView());
+        }
+        printViewFootprint("after setup");
+    }
+
+    @TearDown
+    public void tearDown() {
+        printViewFootprint("after " + counter + " updates");
+    }
+
+    /** Print the heap reachable from the parent and its views, less what the parent held before any view existed. */
+    private void printViewFootprint(String when) {
+        long footprint = GraphLayout.parseInstance(composite, prefixedViews, privateViews).totalSize()
+                - parentFootprint;
+        System.out.printf("%nFootprint of %d prefixed and %d private views over %d keys %s: %d bytes (%d bytes/view)%n",
+                views, views, keys, when, footprint, footprint / (2L * views));
+    }
+
+    @Benchmark
+    public void updateParent() {
+        settable.setProperty("prefix0.key0", "value" + counter++);
+    }
+
+    @Benchmark
+    public void readPrefixedViews(Blackhole bh) {
+        for (int i = 0; i < views; i++) {
+            bh.consume(prefixedViews.get(i).getRawProperty("key" + i));
+        }
+    }
+
+    @Benchmark
+    public void readPrivateViews(Blackhole bh) {
+        for (int i = 0; i < views; i++) {
+            bh.consume(privateViews.get(i).getRawProperty("prefix" + i + ".key" + i));
+        }
+    }
+}
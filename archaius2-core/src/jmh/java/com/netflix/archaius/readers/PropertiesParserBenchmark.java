@@ -0,0 +1,87 @@
+package com.netflix.archaius.readers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PropertiesParser} with the previous loading path, Properties.load through an InputStreamReader
+ * followed by a copy into a HashMap, over generated files with dotted keys sharing prefixes, comments, escapes and
+ * continuations.  Use {@code -prof gc} to compare the garbage produced per file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertiesParserBenchmark {
+    @Param({"1000", "50000"})
+    int lines;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        String[] prefixes = {"platform.client", "platform.server.pool", "ribbon.listOfServers", "hystrix.command.default"};
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            switch (random.nextInt(10)) {
+                case 0:
+                    sb.append("# comment for entry ").append(i).append('\n');
+                    break;
+                case 1:
+                    sb.append(prefixes[i % prefixes.length]).append(".list").append(i)
+                      .append(" = first,\\\n    second,\\\n    third\n");
+                    break;
+                case 2:
+                    sb.append(prefixes[i % prefixes.length]).append(".escaped").append(i)
+                      .append("=tab\\tnew\\nline \\u00e9t\\u00e9\n");
+                    break;
+                default:
+                    sb.append(prefixes[i % prefixes.length]).append(".property").append(i)
+                      .append('=').append(random.nextInt()).append('\n');
+            }
+        }
+        content = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, String> propertiesLoad() throws IOException {
+        Properties props = new Properties();
+        try (InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        Map<String, String> map = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : props.entrySet()) {
+            map.put((String) entry.getKey(), entry.getValue().toString());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, String> propertiesParser() throws IOException {
+        Map<String, String> map = new HashMap<>();
+        PropertiesParser.parse(new ByteArrayInputStream(content), map);
+        return map;
+    }
+}
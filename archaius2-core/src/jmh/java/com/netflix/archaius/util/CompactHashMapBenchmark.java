@@ -0,0 +1,82 @@
+package com.netflix.archaius.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in {@link CompactHashMap} with the unmodifiable HashMap that MapConfig and polled snapshots used to
+ * be stored in, for keys that are present and keys that aren't.  The footprint of each map, excluding the keys and
+ * values themselves, is measured with JOL during setup and printed to the output of the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompactHashMapBenchmark {
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    @Param({"HashMap", "CompactHashMap"})
+    String implementation;
+
+    private String[] keys;
+    private String[] missingKeys;
+    private Map<String, Object> map;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        missingKeys = new String[size];
+        String[] values = new String[size];
+        Map<String, Object> source = Maps.newHashMap(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "some.property.name" + i;
+            missingKeys[i] = "some.missing.name" + i;
+            values[i] = "value" + i;
+            source.put(keys[i], values[i]);
+        }
+        map = implementation.equals("HashMap") ? Collections.unmodifiableMap(source) : CompactHashMap.copyOf(source);
+
+        long footprint = GraphLayout.parseInstance(map)
+                .subtract(GraphLayout.parseInstance((Object[]) keys))
+                .subtract(GraphLayout.parseInstance((Object[]) values))
+                .totalSize();
+        System.out.printf("%n%s footprint for %d entries: %d bytes (%.1f bytes/entry)%n",
+                implementation, size, footprint, (double) footprint / size);
+    }
+
+    private int next() {
+        int i = counter++;
+        if (counter == size) {
+            counter = 0;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public Object read() {
+        return map.get(keys[next()]);
+    }
+
+    @Benchmark
+    public Object readMissing() {
+        return map.get(missingKeys[next()]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.netflix.archaius.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PersistentHashMap} with the copy-on-write HashMap that config state used to be published with.
+ * The update benchmarks replace a single key, which is what a DefaultSettableConfig.setProperty does; use
+ * {@code -prof gc} to compare the garbage produced per update.  The read benchmarks look up existing keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PersistentHashMapBenchmark {
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private String[] keys;
+    private Map<String, Object> hashMap;
+    private PersistentHashMap<String, Object> persistentMap;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        Map<String, Object> map = Maps.newHashMap(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "some.property.name" + i;
+            map.put(keys[i], "value" + i);
+        }
+        hashMap = Collections.unmodifiableMap(map);
+        persistentMap = PersistentHashMap.copyOf(map);
+    }
+
+    private String nextKey() {
+        int i = counter++;
+        if (counter == size) {
+            counter = 0;
+        }
+        return keys[i];
+    }
+
+    @Benchmark
+    public Object readHashMap() {
+        return hashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Object readPersistentMap() {
+        return persistentMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Map<String, Object> updateHashMapCopy() {
+        Map<String, Object> copy = Maps.newHashMap(hashMap.size() + 1);
+        copy.putAll(hashMap);
+        copy.put(nextKey(), "updated");
+        hashMap = Collections.unmodifiableMap(copy);
+        return hashMap;
+    }
+
+    @Benchmark
+    public Map<String, Object> updatePersistentMap() {
+        persistentMap = persistentMap.plus(nextKey(), new String("updated"));
+        return persistentMap;
+    }
+}
@@ -0,0 +1,105 @@
+package com.netflix.archaius.util;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.config.MapConfig;
+import com.netflix.archaius.readers.PropertiesParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a large synthetic configuration from several sources, with and without {@link StringInterner}, and reports the
+ * heap retained by the loaded configs as the {@code retainedKiloBytes} secondary result.  Each source is parsed from
+ * its own content, like separate files or successive polls, and overrides mostly the same property names with values
+ * drawn from a small set of flags, numbers and host names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class StringInternerBenchmark {
+    @Param({"false", "true"})
+    boolean deduplicate;
+
+    @Param({"50000"})
+    int properties;
+
+    @Param({"4"})
+    int sources;
+
+    private byte[][] contents;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedKiloBytes;
+    }
+
+    @Setup
+    public void setup() {
+        String[] prefixes = {"platform.client", "platform.server.pool", "ribbon", "hystrix.command.default"};
+        String[] values = {"true", "false", "0", "1", "100", "1000", "30000"};
+        Random random = new Random(42);
+        contents = new byte[sources][];
+        for (int s = 0; s < sources; s++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < properties; i++) {
+                sb.append(prefixes[i % prefixes.length]).append(".property").append(i).append('=');
+                switch (random.nextInt(4)) {
+                    case 0:
+                        sb.append("host-").append(random.nextInt(50)).append(".example.com:7001");
+                        break;
+                    case 1:
+                        sb.append("unique-").append(s).append('-').append(i);
+                        break;
+                    default:
+                        sb.append(values[random.nextInt(values.length)]);
+                }
+                sb.append('\n');
+            }
+            contents[s] = sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public List<Config> load(Heap heap) throws IOException {
+        long before = usedHeap();
+        List<Config> configs = new ArrayList<>(sources);
+        for (byte[] content : contents) {
+            Map<String, String> props = new HashMap<>();
+            PropertiesParser.parse(new ByteArrayInputStream(content), props);
+            configs.add(MapConfig.from(deduplicate ? StringInterner.internAll(props) : props));
+        }
+        heap.retainedKiloBytes = (usedHeap() - before) / 1024;
+        return configs;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
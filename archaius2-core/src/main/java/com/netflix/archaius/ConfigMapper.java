@@ -15,28 +15,240 @@
  */
 package com.netflix.archaius;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.apache.commons.lang3.text.StrSubstitutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.IoCContainer;
 import com.netflix.archaius.api.annotations.Configuration;
+import com.netflix.archaius.config.DefaultConfigListener;
 import com.netflix.archaius.exceptions.MappingException;
 import com.netflix.archaius.interpolate.ConfigStrLookup;
 
 public class ConfigMapper {
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigMapper.class);
+
     private static final IoCContainer NULL_IOC_CONTAINER = new IoCContainer() {
         @Override
         public <T> T getInstance(String name, Class<T> type) {
             return null;
         }
     };
-    
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType POST_CONFIGURE_TYPE = MethodType.methodType(void.class, Object.class);
+
+    /** Injectees of dynamic bindings that have been collected, whose bindings are removed on the next dynamic map */
+    private static final ReferenceQueue<Object> COLLECTED_INJECTEES = new ReferenceQueue<>();
+
+    /**
+     * Binding plans are derived once per class.  ClassValue holds them without preventing the class from being
+     * unloaded.
+     */
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type);
+        }
+    };
+
+    /**
+     * Value read from the injectee to interpolate the prefix, from a field or a getter.
+     */
+    private static final class Param {
+        final String name;
+        final MethodHandle getter;
+
+        Param(String name, MethodHandle getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * Field or setter to populate from the property with the given name, relative to the prefix.
+     */
+    private static final class Binding {
+        final String name;
+        final Class<?> type;
+        final boolean isInterface;
+        final MethodHandle setter;
+
+        Binding(String name, Class<?> type, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.isInterface = type.isInterface();
+            this.setter = setter;
+        }
+
+        /**
+         * @return the decoded property value, or for interfaces the name of the instance to get from the IoC
+         * container, null if the property is not set
+         */
+        Object read(Config config, String prefix) {
+            if (isInterface) {
+                // TODO: Do Class.newInstance() if objName is a classname
+                return config.getString(prefix + name, null);
+            }
+            return config.get(type, prefix + name, null);
+        }
+
+        void apply(Object injectee, Object observed, IoCContainer ioc) throws MappingException {
+            Object value = observed;
+            if (isInterface && observed != null) {
+                value = ioc.getInstance((String) observed, type);
+            }
+
+            if (value != null) {
+                try {
+                    setter.invokeExact(injectee, value);
+                } catch (Throwable e) {
+                    throw new MappingException("Unable to inject field " + injectee.getClass() + "." + name + " with value " + value, asException(e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Everything about a class that does not depend on the injectee or the configuration.  Method handles are adapted
+     * to Object parameters so they can be invoked exactly without boxing or type checks at the call site.  Reflection
+     * errors are kept and reported when the class is mapped, at the same point mapping used to fail.
+     */
+    private static final class BindingPlan {
+        final Configuration annot;
+        final List<Param> params;
+        final Exception paramError;
+        final List<Binding> bindings;
+        final MethodHandle postConfigure;
+        final Exception postConfigureError;
+
+        BindingPlan(Class<?> type) {
+            this.annot = type.getAnnotation(Configuration.class);
+            if (annot == null) {
+                this.params = Collections.emptyList();
+                this.paramError = null;
+                this.bindings = Collections.emptyList();
+                this.postConfigure = null;
+                this.postConfigureError = null;
+                return;
+            }
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            // Extract parameters from the object.  For each parameter
+            // look for either file 'paramname' or method 'getParamnam'
+            List<Param> params = new ArrayList<>();
+            Exception paramError = null;
+            for (String param : annot.params()) {
+                try {
+                    Field f = type.getDeclaredField(param);
+                    f.setAccessible(true);
+                    params.add(new Param(param, lookup.unreflectGetter(f).asType(GETTER_TYPE)));
+                } catch (NoSuchFieldException e) {
+                    try {
+                        Method method = type.getDeclaredMethod(
+                                "get" + Character.toUpperCase(param.charAt(0)) + param.substring(1));
+                        method.setAccessible(true);
+                        params.add(new Param(param, lookup.unreflect(method).asType(GETTER_TYPE)));
+                    } catch (Exception e1) {
+                        paramError = e1;
+                        break;
+                    }
+                } catch (Exception e) {
+                    paramError = e;
+                    break;
+                }
+            }
+            this.params = params;
+            this.paramError = paramError;
+
+            List<Binding> bindings = new ArrayList<>();
+
+            // Iterate and set fields
+            if (annot.allowFields()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (   Modifier.isFinal(field.getModifiers())
+                        || Modifier.isTransient(field.getModifiers())
+                        || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+
+                    try {
+                        field.setAccessible(true);
+                        bindings.add(new Binding(field.getName(), field.getType(), lookup.unreflectSetter(field).asType(SETTER_TYPE)));
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Unable to access field " + type + "." + field.getName(), e);
+                    }
+                }
+            }
+
+            // map to setter methods
+            if (annot.allowSetters()) {
+                for (Method method : type.getDeclaredMethods()) {
+                    // Only support methods with one parameter
+                    //  Ex.  setTimeout(int timeout);
+                    if (method.getParameterCount() != 1) {
+                        continue;
+                    }
+
+                    // Extract field name from method name
+                    //  Ex.  setTimeout => timeout
+                    String name = method.getName();
+                    if (name.startsWith("set") && name.length() > 3) {
+                        name = name.substring(3,4).toLowerCase() + name.substring(4);
+                    }
+                    // Or from builder
+                    //  Ex.  withTimeout => timeout
+                    else if (name.startsWith("with") && name.length() > 4) {
+                        name = name.substring(4,5).toLowerCase() + name.substring(5);
+                    }
+                    else {
+                        continue;
+                    }
+
+                    try {
+                        method.setAccessible(true);
+                        bindings.add(new Binding(name, method.getParameterTypes()[0], lookup.unreflect(method).asType(SETTER_TYPE)));
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Unable to access method " + type + "." + method.getName(), e);
+                    }
+                }
+            }
+            this.bindings = bindings;
+
+            MethodHandle postConfigure = null;
+            Exception postConfigureError = null;
+            if (!annot.postConfigure().isEmpty()) {
+                try {
+                    Method m = type.getMethod(annot.postConfigure());
+                    postConfigure = lookup.unreflect(m).asType(POST_CONFIGURE_TYPE);
+                } catch (Exception e) {
+                    postConfigureError = e;
+                }
+            }
+            this.postConfigure = postConfigure;
+            this.postConfigureError = postConfigureError;
+        }
+    }
+
     /**
      * Map the configuration from the provided config object onto the injectee and use
      * the provided IoCContainer to inject named bindings.
@@ -58,36 +270,30 @@ public class ConfigMapper {
      * @throws MappingException
      */
     public <T> void mapConfig(T injectee, final Config config, IoCContainer ioc) throws MappingException {
-        Configuration configAnnot = injectee.getClass().getAnnotation(Configuration.class);
+        BindingPlan plan;
+        try {
+            plan = PLANS.get(injectee.getClass());
+        } catch (IllegalStateException e) {
+            throw new MappingException(e);
+        }
+
+        Configuration configAnnot = plan.annot;
         if (configAnnot == null) {
             return;
         }
         
-        Class<T> injecteeType = (Class<T>) injectee.getClass();
-        
         String prefix = configAnnot.prefix();
         
-        // Extract parameters from the object.  For each parameter
-        // look for either file 'paramname' or method 'getParamnam'
-        String[] params = configAnnot.params();
-        if (params.length > 0) {
+        if (plan.paramError != null) {
+            throw new MappingException(plan.paramError);
+        }
+        if (!plan.params.isEmpty()) {
             Map<String, String> map = new HashMap<String, String>();
-            for (String param : params) {
+            for (Param param : plan.params) {
                 try {
-                    Field f = injecteeType.getDeclaredField(param);
-                    f.setAccessible(true);
-                    map.put(param, f.get(injectee).toString());
-                } catch (NoSuchFieldException e) {
-                    try {
-                        Method method = injecteeType.getDeclaredMethod(
-                                "get" + Character.toUpperCase(param.charAt(0)) + param.substring(1));
-                        method.setAccessible(true);
-                        map.put(param, method.invoke(injectee).toString());
-                    } catch (Exception e1) {
-                        throw new MappingException(e1);
-                    }
-                } catch (Exception e) {
-                    throw new MappingException(e);
+                    map.put(param.name, ((Object) param.getter.invokeExact((Object) injectee)).toString());
+                } catch (Throwable e) {
+                    throw new MappingException(asException(e));
                 }
             }
             
@@ -99,94 +305,180 @@ public class ConfigMapper {
         if (!prefix.isEmpty() && !prefix.endsWith("."))
             prefix += ".";
         
-        // Iterate and set fields
-        if (configAnnot.allowFields()) {
-            for (Field field : injecteeType.getDeclaredFields()) {
-                if (   Modifier.isFinal(field.getModifiers())
-                    || Modifier.isTransient(field.getModifiers())
-                    || Modifier.isStatic(field.getModifiers())) {
-                    continue;
-                }
-                
-                String name = field.getName();
-                Class<?> type = field.getType();
-                Object value = null;
-                if (type.isInterface()) {
-                    // TODO: Do Class.newInstance() if objName is a classname
-                    String objName = config.getString(prefix + name, null);
-                    if (objName != null) {
-                        value = ioc.getInstance(objName, type);
-                    }
-                }
-                else {
-                    value = config.get(type, prefix + name, null);
-                }
-                
-                if (value != null) {
-                    try {
-                        field.setAccessible(true);
-                        field.set(injectee, value);
-                    } catch (Exception e) {
-                        throw new MappingException("Unable to inject field " + injectee.getClass() + "." + name + " with value " + value, e);
-                    }
+        Object[] observed = new Object[plan.bindings.size()];
+        if (!configAnnot.dynamic()) {
+            bind(plan, injectee, config, ioc, prefix, observed);
+            return;
+        }
+
+        // Listen before the first read so that no change is missed.  Listening replaces the binding of an earlier call
+        // for the same object, if any.
+        expungeCollected();
+        DynamicBinding binding = new DynamicBinding(injectee, config, ioc, plan, prefix, observed);
+        config.removeListener(binding);
+        config.addListener(binding);
+        try {
+            binding.bind();
+        } catch (MappingException | RuntimeException e) {
+            config.removeListener(binding);
+            throw e;
+        }
+    }
+
+    private static void expungeCollected() {
+        Reference<?> reference;
+        while ((reference = COLLECTED_INJECTEES.poll()) != null) {
+            DynamicBinding binding = ((InjecteeReference) reference).binding;
+            binding.config.removeListener(binding);
+        }
+    }
+
+    private static void bind(BindingPlan plan, Object injectee, Config config, IoCContainer ioc, String prefix,
+                             Object[] observed) throws MappingException {
+        for (int i = 0; i < observed.length; i++) {
+            Binding binding = plan.bindings.get(i);
+            observed[i] = binding.read(config, prefix);
+            binding.apply(injectee, observed[i], ioc);
+        }
+
+        postConfigure(plan, injectee);
+    }
+
+    private static void postConfigure(BindingPlan plan, Object injectee) throws MappingException {
+        if (!plan.annot.postConfigure().isEmpty()) {
+            try {
+                if (plan.postConfigureError != null) {
+                    throw plan.postConfigureError;
                 }
+                plan.postConfigure.invokeExact(injectee);
+            } catch (Throwable e) {
+                throw new MappingException("Unable to invoke postConfigure method " + plan.annot.postConfigure(), asException(e));
             }
         }
-        
-        // map to setter methods
-        if (configAnnot.allowSetters()) {
-            for (Method method : injectee.getClass().getDeclaredMethods()) {
-                // Only support methods with one parameter 
-                //  Ex.  setTimeout(int timeout);
-                if (method.getParameterCount() != 1) {
+    }
+
+    /**
+     * Listener keeping the fields and setters of a dynamic {@link Configuration} up to date.  On every change to the
+     * config only the properties bound to the object are read, and only those whose value differs from the one last
+     * applied are written, followed by a single call to postConfigure.  The object is held weakly and, once it has
+     * been collected, the listener is removed by the next change to the config or the next dynamic mapping, whichever
+     * comes first.  Bindings of the same object to the same config are equal.
+     */
+    private static final class DynamicBinding extends DefaultConfigListener {
+        private final InjecteeReference injectee;
+        private final int injecteeHash;
+        private final Config config;
+        private final IoCContainer ioc;
+        private final BindingPlan plan;
+        private final String prefix;
+        private final Object[] observed;
+
+        DynamicBinding(Object injectee, Config config, IoCContainer ioc, BindingPlan plan, String prefix, Object[] observed) {
+            this.injectee = new InjecteeReference(injectee, this);
+            this.injecteeHash = System.identityHashCode(injectee);
+            this.config = config;
+            this.ioc = ioc;
+            this.plan = plan;
+            this.prefix = prefix;
+            this.observed = observed;
+        }
+
+        /** Apply the initial values, before any change notified in the meantime is handled. */
+        synchronized void bind() throws MappingException {
+            Object injectee = this.injectee.get();
+            if (injectee != null) {
+                ConfigMapper.bind(plan, injectee, config, ioc, prefix, observed);
+            }
+        }
+
+        @Override
+        public void onConfigAdded(Config config) {
+            refresh();
+        }
+
+        @Override
+        public void onConfigRemoved(Config config) {
+            refresh();
+        }
+
+        @Override
+        public void onConfigUpdated(Config config) {
+            refresh();
+        }
+
+        private synchronized void refresh() {
+            Object injectee = this.injectee.get();
+            if (injectee == null) {
+                config.removeListener(this);
+                return;
+            }
+
+            boolean changed = false;
+            for (int i = 0; i < observed.length; i++) {
+                Binding binding = plan.bindings.get(i);
+                Object current;
+                try {
+                    current = binding.read(config, prefix);
+                } catch (RuntimeException e) {
+                    LOG.warn("Unable to read property {}{} for {}", prefix, binding.name, injectee.getClass().getName(), e);
                     continue;
                 }
-                
-                // Extract field name from method name
-                //  Ex.  setTimeout => timeout
-                String name = method.getName();
-                if (name.startsWith("set") && name.length() > 3) {
-                    name = name.substring(3,4).toLowerCase() + name.substring(4);
-                }
-                // Or from builder
-                //  Ex.  withTimeout => timeout
-                else if (name.startsWith("with") && name.length() > 4) {
-                    name = name.substring(4,1).toLowerCase() + name.substring(5);
-                }
-                else {
+                if (Objects.equals(current, observed[i])) {
                     continue;
                 }
-    
-                method.setAccessible(true);
-                Class<?> type = method.getParameterTypes()[0];
-                Object value = null;
-                if (type.isInterface()) {
-                    String objName = config.getString(prefix + name, null);
-                    if (objName != null) {
-                        value = ioc.getInstance(objName, type);
-                    }
-                }
-                else {
-                    value = config.get(type, prefix + name, null);
+
+                observed[i] = current;
+                try {
+                    binding.apply(injectee, current, ioc);
+                    // Nothing is written when the property was removed
+                    changed |= current != null;
+                } catch (MappingException e) {
+                    LOG.warn(e.getMessage(), e);
                 }
-                
-                if (value != null) {
-                    try {
-                        method.invoke(injectee, value);
-                    } catch (Exception e) {
-                        throw new MappingException("Unable to inject field " + injectee.getClass() + "." + name + " with value " + value, e);
-                    }
+            }
+
+            if (changed) {
+                try {
+                    postConfigure(plan, injectee);
+                } catch (MappingException e) {
+                    LOG.warn(e.getMessage(), e);
                 }
             }
         }
-        
-        if (!configAnnot.postConfigure().isEmpty()) {
-            try {
-                Method m = injecteeType.getMethod(configAnnot.postConfigure());
-                m.invoke(injectee);
-            } catch (Exception e) {
-                throw new MappingException("Unable to invoke postConfigure method " + configAnnot.postConfigure(), e);
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DynamicBinding)) {
+                return false;
             }
+            DynamicBinding other = (DynamicBinding) obj;
+            return injecteeHash == other.injecteeHash
+                    && config == other.config
+                    && injectee.get() == other.injectee.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * injecteeHash + System.identityHashCode(config);
+        }
+    }
+
+    private static final class InjecteeReference extends WeakReference<Object> {
+        private final DynamicBinding binding;
+
+        InjecteeReference(Object injectee, DynamicBinding binding) {
+            super(injectee, COLLECTED_INJECTEES);
+            this.binding = binding;
+        }
+    }
+
+    /**
+     * Errors are not wrapped, so that they propagate as they would from a direct call.
+     */
+    private static Exception asException(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
         }
+        return (Exception) t;
     }
 }
@@ -29,6 +29,7 @@ import com.netflix.archaius.config.MapConfig;
 import com.netflix.archaius.interpolate.CommonsStrInterpolator;
 import com.netflix.archaius.interpolate.ConfigStrLookup;
 import com.netflix.archaius.readers.PropertiesConfigReader;
+import com.netflix.archaius.util.Futures;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,10 +37,15 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /**
  * DefaultConfigLoader provides a DSL to load configurations.
@@ -65,6 +71,8 @@ public class DefaultConfigLoader implements ConfigLoader {
         private CascadeStrategy defaultStrategy = DEFAULT_CASCADE_STRATEGY;
         private StrInterpolator     interpolator    = DEFAULT_INTERPOLATOR;
         private Lookup              lookup          = DEFAULT_LOOKUP;
+        private Executor            executor        = null;
+        private boolean             deduplicateStrings = false;
         
         public Builder withConfigReader(ConfigReader loader) {
             this.loaders.add(loader);
@@ -105,9 +113,31 @@ public class DefaultConfigLoader implements ConfigLoader {
             return this;
         }
 
+        /**
+         * Load the names generated by the cascade strategy, as well as multiple resources matching a single name, 
+         * concurrently on the provided executor.  The executor should be bounded; tasks that it has not started by the
+         * time their result is needed are run on the loading thread.  Loaded configs are always assembled in the
+         * override order defined by the cascade strategy.  By default everything is loaded on the calling thread.
+         */
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Intern the names and values of properties loaded by the default reader, which saves memory for large
+         * configurations with many repeated strings.  Has no effect on readers added with {@link #withConfigReader}.
+         *
+         * @see com.netflix.archaius.util.StringInterner
+         */
+        public Builder withStringDeduplication(boolean deduplicateStrings) {
+            this.deduplicateStrings = deduplicateStrings;
+            return this;
+        }
+
         public DefaultConfigLoader build() {
             if (loaders.isEmpty()) {
-                loaders.add(new PropertiesConfigReader());
+                loaders.add(new PropertiesConfigReader(executor, deduplicateStrings));
             }
             return new DefaultConfigLoader(this);
         }
@@ -121,12 +151,14 @@ public class DefaultConfigLoader implements ConfigLoader {
     private final CascadeStrategy    defaultStrategy;
     private final StrInterpolator    interpolator;
     private final Lookup             lookup;
+    private final Executor           executor;
     
     public DefaultConfigLoader(Builder builder) {
         this.loaders            = builder.loaders;
         this.defaultStrategy    = builder.defaultStrategy;
         this.interpolator       = builder.interpolator;
         this.lookup             = builder.lookup;
+        this.executor           = builder.executor;
     }
     
     @Override
@@ -169,30 +201,63 @@ public class DefaultConfigLoader implements ConfigLoader {
             public CompositeConfig load(String resourceName) throws ConfigException {
                 CompositeConfig compositeConfig = new DefaultCompositeConfig(true);
 
+                // Collect everything first so the composite is flattened only once
                 List<String> names = strategy.generate(resourceName, interpolator, lookup);
+                List<Callable<Config>> tasks = new ArrayList<>(names.size());
                 for (String name : names) {
-                    for (ConfigReader reader : loaders) {
-                        if (reader.canLoad(classLoader, name)) {
-                            try {
-                                Config config = reader.load(classLoader, name, interpolator, lookup);
-                                if (!config.isEmpty()) {
-                                    compositeConfig.addConfig(name, config);
-                                }
-                                LOG.debug("Loaded {} ", name);
-                            }
-                            catch (ConfigException e) {
-                                LOG.debug("Unable to load {}, {}", name, e.getMessage());
-                            }
-                            break;
-                        }
+                    tasks.add(() -> loadCandidate(name));
+                }
+
+                LinkedHashMap<String, Config> configs = new LinkedHashMap<>();
+                List<Config> loaded = loadAll(resourceName, tasks);
+                for (int i = 0; i < names.size(); i++) {
+                    Config config = loaded.get(i);
+                    if (config != null && !configs.containsKey(names.get(i))) {
+                        configs.put(names.get(i), config);
                     }
                 }
                 if (overrides != null) {
                     LOG.debug("Loading overrides form {}", resourceName);
-                    compositeConfig.addConfig(resourceName + "_overrides", overrides);
+                    configs.putIfAbsent(resourceName + "_overrides", overrides);
                 }
+                compositeConfig.addConfigs(configs);
                 return compositeConfig;
             }
+
+            /** Load a single cascade candidate with the first reader that can load it, null if nothing was found. */
+            private Config loadCandidate(String name) {
+                for (ConfigReader reader : loaders) {
+                    if (reader.canLoad(classLoader, name)) {
+                        try {
+                            Config config = reader.load(classLoader, name, interpolator, lookup);
+                            LOG.debug("Loaded {} ", name);
+                            return config.isEmpty() ? null : config;
+                        }
+                        catch (ConfigException e) {
+                            LOG.debug("Unable to load {}, {}", name, e.getMessage());
+                        }
+                        break;
+                    }
+                }
+                return null;
+            }
+
+            private List<Config> loadAll(String resourceName, List<Callable<Config>> tasks) throws ConfigException {
+                try {
+                    return Futures.runInOrder(executor, tasks);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConfigException("Interrupted while loading " + resourceName, e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new ConfigException("Failed to load " + resourceName, e.getCause());
+                }
+            }
  
             @Override
             public Config load(URL url) {
@@ -1,30 +1,54 @@
 package com.netflix.archaius;
 
+import com.netflix.archaius.api.BooleanProperty;
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.ConfigListener;
+import com.netflix.archaius.api.DoubleProperty;
+import com.netflix.archaius.api.IntProperty;
+import com.netflix.archaius.api.LongProperty;
 import com.netflix.archaius.api.Property;
 import com.netflix.archaius.api.PropertyContainer;
 import com.netflix.archaius.api.PropertyFactory;
 import com.netflix.archaius.api.PropertyListener;
+import com.netflix.archaius.util.ThreadFactories;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicStampedReference;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultPropertyFactory.class);
+
+    private static final String PARALLEL_NOTIFICATION_THRESHOLD = "archaius.propertyListeners.parallelThreshold";
+
+    private static final String EXCESSIVE_PROPERTIES_LIMIT = "archaius.excessivePropertiesLogging.limit";
+
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final int MAX_FAILURES_LOGGED = 1000;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<PropertyImpl> REFRESHING =
+            AtomicIntegerFieldUpdater.newUpdater(PropertyImpl.class, "refreshing");
     
     /**
      * Create a Property factory that is attached to a specific config
@@ -53,16 +77,68 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
     private final AtomicInteger masterVersion = new AtomicInteger();
     
     /**
-     * Array of all active callbacks.  ListenerWrapper#update will be called for any
-     * change in config.  
+     * All active callbacks, which will be called for any change in config.
+     */
+    private final ListenerRegistry listeners = new ListenerRegistry();
+
+    /**
+     * Executor across which callbacks are partitioned once there are at least parallelNotificationThreshold of them
+     */
+    private final Executor notificationExecutor;
+    private final int parallelNotificationThreshold;
+
+    /**
+     * Time at which a failure to read each property was last logged as a warning.  Failures in between are logged
+     * at debug so that a bad value doesn't flood the logs on every config change.  Bounded to MAX_FAILURES_LOGGED
+     * keys, since keys may be created dynamically.
+     */
+    private final ConcurrentMap<String, Long> failuresLogged = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical instances of the properties derived from another one by orElse, orElseGet or map, and of primitive
+     * properties, so that code creating them inline shares a single instance and its cached value.  Values are weak
+     * so unused derived properties can be collected.
+     */
+    private final ConcurrentMap<DerivedKey, DerivedReference> derived = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Property<?>> collectedDerived = new ReferenceQueue<>();
+
+    /**
+     * Number of derived properties created per key, to identify code that keeps creating them
      */
-    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, Integer> derivedCount = new ConcurrentHashMap<>();
+    private final int excessivePropertiesLimit;
 
+    /**
+     * Create a factory notifying subscriptions on the thread that changed the config, unless there are at least as
+     * many as the archaius.propertyListeners.parallelThreshold config key, in which case they are partitioned across
+     * the common ForkJoinPool.
+     */
     public DefaultPropertyFactory(Config config) {
+        this(config, ForkJoinPool.commonPool(), orZero(config.getInteger(PARALLEL_NOTIFICATION_THRESHOLD, 0)));
+    }
+
+    /**
+     * @param config Config from which properties are retrieved
+     * @param notificationExecutor Executor across which subscriptions are notified of changes once there are at
+     *                             least parallelNotificationThreshold of them.  The thread that changed the config
+     *                             waits for all of them to be notified, so a subscription that needs a lock held by
+     *                             that thread, such as the monitor of a DefaultSettableConfig being set, deadlocks.
+     *                             Only enable parallel notification when no subscription takes such a lock.
+     * @param parallelNotificationThreshold Number of subscriptions from which notifications are run in parallel,
+     *                                      0 to always notify them sequentially
+     */
+    public DefaultPropertyFactory(Config config, Executor notificationExecutor, int parallelNotificationThreshold) {
         this.config = config;
+        this.notificationExecutor = notificationExecutor;
+        this.parallelNotificationThreshold = parallelNotificationThreshold;
+        this.excessivePropertiesLimit = orZero(config.getInteger(EXCESSIVE_PROPERTIES_LIMIT, 100));
         this.config.addListener(this);
     }
 
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
     @Override
     public PropertyContainer getProperty(String propName) {
         return new PropertyContainer() {
@@ -137,6 +213,30 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
                     return typedDefaultValue;
                 });
             }
+
+            @Override
+            public IntProperty asIntProperty(int defaultValue) {
+                return getDerived(propName, propName, "asIntProperty", defaultValue,
+                        () -> new IntPropertyImpl(propName, defaultValue));
+            }
+
+            @Override
+            public LongProperty asLongProperty(long defaultValue) {
+                return getDerived(propName, propName, "asLongProperty", defaultValue,
+                        () -> new LongPropertyImpl(propName, defaultValue));
+            }
+
+            @Override
+            public DoubleProperty asDoubleProperty(double defaultValue) {
+                return getDerived(propName, propName, "asDoubleProperty", defaultValue,
+                        () -> new DoublePropertyImpl(propName, defaultValue));
+            }
+
+            @Override
+            public BooleanProperty asBooleanProperty(boolean defaultValue) {
+                return getDerived(propName, propName, "asBooleanProperty", defaultValue,
+                        () -> new BooleanPropertyImpl(propName, defaultValue));
+            }
         };
     }
     
@@ -168,9 +268,105 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
         // We expect a small set of callbacks and invoke all of them whenever there is any change
         // in the configuration regardless of change. The blanket update is done since we don't track
         // a dependency graph of replacements.
-        listeners.forEach(Runnable::run);
+        listeners.runAll(notificationExecutor, parallelNotificationThreshold);
+    }
+
+    /**
+     * @return Number of active subscriptions to properties created by this factory
+     */
+    public int getListenerCount() {
+        return listeners.getLiveCount();
+    }
+
+    /**
+     * @return Number of subscriptions removed automatically because their owner was garbage collected
+     */
+    public long getClearedListenerCount() {
+        return listeners.getClearedCount();
+    }
+
+    /**
+     * @return Time taken to notify all subscriptions of the last config change, in nanoseconds
+     */
+    public long getLastNotificationNanos() {
+        return listeners.getLastRunNanos();
     }
     
+    /**
+     * Return the canonical instance of a derived property, creating it if it doesn't exist or has been collected.
+     *
+     * @param key       Key of the property, used to report excessive creation
+     * @param base      Object the property is derived from, compared with equals
+     * @param operation Name of the operation deriving the property
+     * @param argument  Argument of the operation, compared with equals
+     */
+    @SuppressWarnings("unchecked")
+    private <P extends Property<?>> P getDerived(String key, Object base, String operation, Object argument, Supplier<P> factory) {
+        expungeCollectedDerived();
+
+        DerivedKey derivedKey = new DerivedKey(base, operation, argument);
+        DerivedReference reference = derived.get(derivedKey);
+        Property<?> property = reference != null ? reference.get() : null;
+        if (property != null) {
+            return (P) property;
+        }
+
+        Property<?>[] result = new Property<?>[1];
+        derived.compute(derivedKey, (k, current) -> {
+            result[0] = current != null ? current.get() : null;
+            if (result[0] != null) {
+                return current;
+            }
+            result[0] = factory.get();
+            return new DerivedReference(k, result[0], collectedDerived);
+        });
+        if (excessivePropertiesLimit > 0) {
+            warnWhenTooMany(key);
+        }
+        return (P) result[0];
+    }
+
+    private void expungeCollectedDerived() {
+        Reference<?> reference;
+        while ((reference = collectedDerived.poll()) != null) {
+            DerivedReference derivedReference = (DerivedReference) reference;
+            derived.remove(derivedReference.key, derivedReference);
+        }
+    }
+
+    private void warnWhenTooMany(String key) {
+        int currentCount = derivedCount.merge(key, 1, Integer::sum);
+
+        // Only warn when the count is a multiple of the limit to avoid being too noisy
+        if (LOG.isWarnEnabled() && currentCount % excessivePropertiesLimit == 0) {
+            LOG.warn("Too many Property objects derived from '{}' are being created ({} so far).\n" +
+                     "Please review the calling code and hold on to the Property instead of creating it on every use.\n" +
+                     "Reporting can be tuned by setting the `{}` config key to a higher threshold.\n" +
+                     "Stack trace for debugging follows:",
+                     key, currentCount, EXCESSIVE_PROPERTIES_LIMIT, new Throwable());
+        }
+    }
+
+    private void logFailure(String key, Exception e) {
+        long now = System.nanoTime();
+        Long last = failuresLogged.get(key);
+        if (last == null && failuresLogged.size() >= MAX_FAILURES_LOGGED) {
+            // Forgetting a key only means its next failure is logged as a warning again
+            failuresLogged.values().removeIf(time -> now - time >= FAILURE_LOG_INTERVAL_NANOS);
+            if (failuresLogged.size() >= MAX_FAILURES_LOGGED) {
+                failuresLogged.clear();
+            }
+        }
+        boolean warn = last == null
+                ? failuresLogged.putIfAbsent(key, now) == null
+                : now - last >= FAILURE_LOG_INTERVAL_NANOS && failuresLogged.replace(key, last, now);
+        if (warn) {
+            LOG.warn("Unable to get current version of property '{}'", key, e);
+        } else {
+            LOG.debug("Unable to get current version of property '{}'", key, e);
+        }
+    }
+
     protected Config getConfig() {
         return this.config;
     }
@@ -194,68 +390,156 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
         return (Property<T>) properties.computeIfAbsent(keyAndType, (ignore) -> new PropertyImpl<>(keyAndType, supplier));
     }
 
-    private final class PropertyImpl<T> implements Property<T> {
-        private final KeyAndType<T> keyAndType;
-        private final Supplier<T> supplier;
-        private final AtomicStampedReference<T> cache = new AtomicStampedReference<>(null, -1);
-        private final ConcurrentMap<PropertyListener<?>, Subscription> oldSubscriptions = new ConcurrentHashMap<>();
-        
-        public PropertyImpl(KeyAndType<T> keyAndType, Supplier<T> supplier) {
-            this.keyAndType = keyAndType;
-            this.supplier = supplier;
+    /**
+     * Passes the value of a property to a consumer whenever it differs from the value last passed
+     */
+    private static final class ChangeNotifier<T> {
+        private final Property<T> property;
+        private T current;
+
+        ChangeNotifier(Property<T> property) {
+            this.property = property;
+            this.current = property.get();
         }
-        
-        @Override
-        public T get() {
-            int cacheVersion = cache.getStamp();
-            int latestVersion  = masterVersion.get();
-            
-            if (cacheVersion != latestVersion) {
-                T currentValue = cache.getReference();
-                T newValue = null;
+
+        synchronized <O> void update(O owner, BiConsumer<O, T> consumer) {
+            T newValue = latest();
+            if (Objects.equals(current, newValue)) {
+                return;
+            }
+            current = newValue;
+            consumer.accept(owner, current);
+        }
+
+        /**
+         * A plain read may return the previous value while another thread refreshes it, which would hide the change
+         */
+        @SuppressWarnings("unchecked")
+        private T latest() {
+            return property instanceof PropertyImpl ? ((PropertyImpl<T>) property).getLatest() : property.get();
+        }
+    }
+
+    /**
+     * Timer shared by all debounced and rate limited subscriptions, created on first use
+     */
+    private static final class NotificationTimer {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactories.newNamedDaemonThreadFactory("Archaius-PropertyTimer-%d"));
+    }
+
+    /**
+     * Subscription delivering the latest value of a property on an executor once it hasn't changed for the debounce
+     * window, and no sooner than the minimum interval after the previous delivery.  At most one timer task is
+     * pending per subscription, and intermediate values are never delivered.
+     */
+    private final class DelayedSubscription<T> implements Property.Subscription {
+        private final Property<T> property;
+        private final Consumer<T> consumer;
+        private final long debounceNanos;
+        private final long minIntervalNanos;
+        private final Executor executor;
+        private final Property.Subscription subscription;
+
+        // Guarded by this
+        private long lastChangeNanos;
+        private long lastDeliveryNanos;
+        private boolean scheduled;
+
+        // Guarded by deliveryLock, so that a slow consumer doesn't hold up the timer
+        private final Object deliveryLock = new Object();
+        private T delivered;
+
+        private volatile boolean cancelled;
+
+        DelayedSubscription(Property<T> property, Consumer<T> consumer, long debounceNanos, long minIntervalNanos, Executor executor) {
+            this.property = property;
+            this.consumer = consumer;
+            this.debounceNanos = debounceNanos;
+            this.minIntervalNanos = minIntervalNanos;
+            this.executor = executor;
+            this.delivered = property.get();
+            this.lastDeliveryNanos = System.nanoTime() - minIntervalNanos;
+
+            ChangeNotifier<T> notifier = new ChangeNotifier<>(property);
+            this.subscription = listeners.add(() -> notifier.update(this, (self, value) -> self.onChange()));
+        }
+
+        private synchronized void onChange() {
+            lastChangeNanos = System.nanoTime();
+            if (!scheduled) {
+                scheduled = true;
+                schedule(lastChangeNanos);
+            }
+        }
+
+        private void schedule(long now) {
+            long delay = Math.max(lastChangeNanos + debounceNanos, lastDeliveryNanos + minIntervalNanos) - now;
+            NotificationTimer.INSTANCE.schedule(this::onTimer, Math.max(0, delay), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void onTimer() {
+            if (cancelled) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (now - lastChangeNanos < debounceNanos || now - lastDeliveryNanos < minIntervalNanos) {
+                schedule(now);
+                return;
+            }
+            scheduled = false;
+            lastDeliveryNanos = now;
+            executor.execute(this::deliver);
+        }
+
+        private void deliver() {
+            synchronized (deliveryLock) {
+                T value = property.get();
+                if (cancelled || Objects.equals(delivered, value)) {
+                    return;
+                }
+                delivered = value;
                 try {
-                    newValue = supplier.get();
+                    consumer.accept(value);
                 } catch (Exception e) {
-                    LOG.warn("Unable to get current version of property '{}'", keyAndType.key, e);
-                }
-                
-                if (cache.compareAndSet(currentValue, newValue, cacheVersion, latestVersion)) {
-                    // Possible race condition here but not important enough to warrant locking
-                    return newValue;
+                    LOG.warn("Failed to notify subscription to property '{}'", property.getKey(), e);
                 }
             }
-            return cache.getReference();
         }
 
         @Override
-        public String getKey() {
-            return keyAndType.key;
+        public void unsubscribe() {
+            cancelled = true;
+            subscription.unsubscribe();
         }
-        
+    }
+
+    /**
+     * Key, change notification and listener handling shared by all property implementations.
+     */
+    private abstract class AbstractPropertyImpl<T> implements Property<T> {
+        private final ConcurrentMap<PropertyListener<?>, Subscription> oldSubscriptions = new ConcurrentHashMap<>();
+
         @Override
         public Subscription subscribe(Consumer<T> consumer) {
-            Runnable action = new Runnable() {
-                private T current = get();
-                @Override
-                public synchronized void run() {
-                    T newValue = get();
-                    if (current == newValue && current == null) {
-                        return;
-                    } else if (current == null) {
-                        current = newValue;
-                    } else if (newValue == null) {
-                        current = null;
-                    } else if (current.equals(newValue)) {
-                        return;
-                    } else {
-                        current = newValue;
-                    }
-                    consumer.accept(current);
-                }
-            };
-            
-            listeners.add(action);
-            return () -> listeners.remove(action);
+            ChangeNotifier<T> notifier = new ChangeNotifier<>(this);
+            return listeners.add(() -> notifier.update(consumer, Consumer::accept));
+        }
+
+        @Override
+        public <O> Subscription subscribe(O owner, BiConsumer<O, T> consumer) {
+            ChangeNotifier<T> notifier = new ChangeNotifier<>(this);
+            return listeners.add(owner, o -> notifier.update(o, consumer));
+        }
+
+        @Override
+        public Subscription subscribeDebounced(Consumer<T> consumer, long window, TimeUnit unit, Executor executor) {
+            return new DelayedSubscription<>(this, consumer, unit.toNanos(window), 0, executor);
+        }
+
+        @Override
+        public Subscription subscribeRateLimited(Consumer<T> consumer, long minInterval, TimeUnit unit, Executor executor) {
+            return new DelayedSubscription<>(this, consumer, 0, unit.toNanos(minInterval), executor);
         }
 
         @Deprecated
@@ -277,12 +561,89 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
             }
         }
 
+        @Override
+        public String toString() {
+            return "Property [Key=" + getKey() + "; value="+get() + "]";
+        }
+    }
+
+    private final class PropertyImpl<T> extends AbstractPropertyImpl<T> {
+        private final KeyAndType<T> keyAndType;
+        private final Supplier<T> supplier;
+
+        /**
+         * Config version the cached value was computed for.  Written after the value so that a reader observing the
+         * latest version also observes its value.
+         */
+        private volatile int version = -1;
+        private volatile T value;
+
+        /**
+         * 1 while a thread is recomputing the value, see {@link #REFRESHING}
+         */
+        volatile int refreshing;
+        
+        public PropertyImpl(KeyAndType<T> keyAndType, Supplier<T> supplier) {
+            this.keyAndType = keyAndType;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public String getKey() {
+            return keyAndType.key;
+        }
+        
+        @Override
+        public T get() {
+            return get(false);
+        }
+
+        /**
+         * Return the value for the current config version, computing it if another thread is refreshing the value
+         * instead of returning the previous one.
+         */
+        T getLatest() {
+            return get(true);
+        }
+
+        private T get(boolean latest) {
+            int cacheVersion = version;
+            if (cacheVersion == masterVersion.get()) {
+                return value;
+            }
+
+            // Only one thread recomputes the value while the others keep returning the previous one
+            if (REFRESHING.compareAndSet(this, 0, 1)) {
+                try {
+                    int latestVersion = masterVersion.get();
+                    T newValue = compute();
+                    value = newValue;
+                    version = latestVersion;
+                    return newValue;
+                } finally {
+                    refreshing = 0;
+                }
+            }
+
+            // There is no previous value until the first computation completes
+            return cacheVersion != -1 && !latest ? value : compute();
+        }
+
+        private T compute() {
+            try {
+                return supplier.get();
+            } catch (Exception e) {
+                logFailure(keyAndType.key, e);
+                return null;
+            }
+        }
+
         @Override
         public Property<T> orElse(T defaultValue) {
-            return new PropertyImpl<>(keyAndType, () -> {
+            return getDerived(keyAndType.key, this, "orElse", defaultValue, () -> new PropertyImpl<>(keyAndType, () -> {
                 T value = supplier.get();
                 return value != null ? value : defaultValue;
-            });
+            }));
         }
 
         @Override
@@ -291,28 +652,198 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
                 throw new IllegalStateException("Type information lost due to map() operation.  All calls to orElse[Get] must be made prior to calling map");
             }
             KeyAndType<T> keyAndType = this.keyAndType.withKey(key);
-            Property<T> next = DefaultPropertyFactory.this.get(key, keyAndType.type);
-            return new PropertyImpl<>(keyAndType, () -> {
-                T value = supplier.get();
-                return value != null ? value : next.get();
+            return getDerived(this.keyAndType.key, this, "orElseGet", key, () -> {
+                Property<T> next = DefaultPropertyFactory.this.get(key, keyAndType.type);
+                return new PropertyImpl<>(keyAndType, () -> {
+                    T value = supplier.get();
+                    return value != null ? value : next.get();
+                });
             });
         }
 
         @Override
         public <S> Property<S> map(Function<T, S> mapper) {
-            return new PropertyImpl<>(keyAndType.discardType(), () -> {
+            return getDerived(keyAndType.key, this, "map", mapper, () -> new PropertyImpl<>(keyAndType.discardType(), () -> {
                 T value = supplier.get();
                 if (value != null) {
                     return mapper.apply(value);
                 } else {
                     return null;
                 }
-            });
+            }));
+        }
+    }
+
+    /**
+     * Base for properties holding their value in a volatile primitive field.  The value is refreshed under a lock when
+     * the config version changes, and the version is written after the value so that a reader observing the latest
+     * version also observes the value read for it.  Reads do not allocate and neither do refreshes, beyond what
+     * decoding the value requires.
+     */
+    private abstract class PrimitivePropertyImpl<T> extends AbstractPropertyImpl<T> {
+        private final KeyAndType<T> keyAndType;
+        private volatile int version = -1;
+
+        PrimitivePropertyImpl(String key, Class<T> type) {
+            this.keyAndType = new KeyAndType<>(key, type);
         }
 
         @Override
-        public String toString() {
-            return "Property [Key=" + getKey() + "; value="+get() + "]";
+        public String getKey() {
+            return keyAndType.key;
+        }
+
+        final void ensureCurrent() {
+            if (version != masterVersion.get()) {
+                refresh();
+            }
+        }
+
+        private synchronized void refresh() {
+            int latestVersion = masterVersion.get();
+            if (version == latestVersion) {
+                return;
+            }
+            try {
+                update(config.get(keyAndType.getRawType(), keyAndType.key, null));
+            } catch (Exception e) {
+                logFailure(keyAndType.key, e);
+                update(null);
+            }
+            version = latestVersion;
+        }
+
+        /**
+         * Store the decoded value in the primitive field, or the default if null
+         */
+        abstract void update(T value);
+
+        @Override
+        public <S> Property<S> map(Function<T, S> mapper) {
+            return getDerived(keyAndType.key, this, "map", mapper,
+                    () -> new PropertyImpl<>(keyAndType.discardType(), () -> mapper.apply(get())));
+        }
+    }
+
+    private final class IntPropertyImpl extends PrimitivePropertyImpl<Integer> implements IntProperty {
+        private final int defaultValue;
+        private volatile int value;
+
+        IntPropertyImpl(String key, int defaultValue) {
+            super(key, Integer.class);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void update(Integer value) {
+            this.value = value != null ? value : defaultValue;
+        }
+
+        @Override
+        public int getAsInt() {
+            ensureCurrent();
+            return value;
+        }
+    }
+
+    private final class LongPropertyImpl extends PrimitivePropertyImpl<Long> implements LongProperty {
+        private final long defaultValue;
+        private volatile long value;
+
+        LongPropertyImpl(String key, long defaultValue) {
+            super(key, Long.class);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void update(Long value) {
+            this.value = value != null ? value : defaultValue;
+        }
+
+        @Override
+        public long getAsLong() {
+            ensureCurrent();
+            return value;
+        }
+    }
+
+    private final class DoublePropertyImpl extends PrimitivePropertyImpl<Double> implements DoubleProperty {
+        private final double defaultValue;
+        private volatile double value;
+
+        DoublePropertyImpl(String key, double defaultValue) {
+            super(key, Double.class);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void update(Double value) {
+            this.value = value != null ? value : defaultValue;
+        }
+
+        @Override
+        public double getAsDouble() {
+            ensureCurrent();
+            return value;
+        }
+    }
+
+    private final class BooleanPropertyImpl extends PrimitivePropertyImpl<Boolean> implements BooleanProperty {
+        private final boolean defaultValue;
+        private volatile boolean value;
+
+        BooleanPropertyImpl(String key, boolean defaultValue) {
+            super(key, Boolean.class);
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void update(Boolean value) {
+            this.value = value != null ? value : defaultValue;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            ensureCurrent();
+            return value;
+        }
+    }
+
+    private static final class DerivedKey {
+        private final Object base;
+        private final String operation;
+        private final Object argument;
+
+        DerivedKey(Object base, String operation, Object argument) {
+            this.base = base;
+            this.operation = operation;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DerivedKey)) {
+                return false;
+            }
+            DerivedKey other = (DerivedKey) o;
+            return base.equals(other.base) && operation.equals(other.operation) && Objects.equals(argument, other.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(base, operation, argument);
+        }
+    }
+
+    private static final class DerivedReference extends WeakReference<Property<?>> {
+        private final DerivedKey key;
+
+        DerivedReference(DerivedKey key, Property<?> property, ReferenceQueue<Property<?>> queue) {
+            super(property, queue);
+            this.key = key;
         }
     }
 
@@ -334,6 +865,11 @@ public class DefaultPropertyFactory implements PropertyFactory, ConfigListener {
             return new KeyAndType<>(key, null);
         }
 
+        @SuppressWarnings("unchecked") // only called for properties created with a Class
+        public Class<T> getRawType() {
+            return (Class<T>) type;
+        }
+
         public KeyAndType<T> withKey(String newKey) {
             return new KeyAndType<>(newKey, type);
         }
@@ -0,0 +1,229 @@
+package com.netflix.archaius;
+
+import com.netflix.archaius.api.Property.Subscription;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Registry of the callbacks run by {@link DefaultPropertyFactory} on every config change.
+ * <p>
+ * Callbacks are kept in registration order in a concurrent skip list so that adding and removing one doesn't copy the
+ * whole set, as a copy-on-write list would with thousands of subscriptions.  A callback may be registered with an
+ * owner that is only weakly referenced, in which case it is removed automatically once the owner has been collected.
+ * This keeps subscriptions that are never unsubscribed from accumulating and slowing down every config change.
+ */
+final class ListenerRegistry {
+    private interface Listener {
+        /**
+         * @return false if the listener should be removed because its owner was collected
+         */
+        boolean run();
+    }
+
+    private static final class OwnedListener extends WeakReference<Object> implements Listener {
+        private final long id;
+        private final Consumer<Object> action;
+
+        OwnedListener(long id, Object owner, Consumer<Object> action, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.id = id;
+            this.action = action;
+        }
+
+        @Override
+        public boolean run() {
+            Object owner = get();
+            if (owner == null) {
+                return false;
+            }
+            action.accept(owner);
+            return true;
+        }
+    }
+
+    private final ConcurrentSkipListMap<Long, Listener> listeners = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final AtomicLong clearedCount = new AtomicLong();
+    private volatile long lastRunNanos;
+    private final int partitions;
+
+    ListenerRegistry() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param partitions Maximum number of partitions callbacks are split into when run in parallel
+     */
+    ListenerRegistry(int partitions) {
+        this.partitions = partitions;
+    }
+
+    /**
+     * Add a callback that is run until the returned subscription is unsubscribed
+     */
+    Subscription add(Runnable action) {
+        return add(() -> {
+            action.run();
+            return true;
+        });
+    }
+
+    /**
+     * Add a callback that is passed the owner for as long as the owner is reachable, or until the returned
+     * subscription is unsubscribed.  The action must not reference the owner itself or it will never be collected.
+     */
+    @SuppressWarnings("unchecked")
+    <O> Subscription add(O owner, Consumer<O> action) {
+        long id = nextId.incrementAndGet();
+        return add(id, new OwnedListener(id, owner, (Consumer<Object>) action, collectedOwners));
+    }
+
+    private Subscription add(Listener listener) {
+        return add(nextId.incrementAndGet(), listener);
+    }
+
+    private Subscription add(long id, Listener listener) {
+        expungeCollected();
+        listeners.put(id, listener);
+        liveCount.incrementAndGet();
+        return () -> remove(id, listener);
+    }
+
+    private boolean remove(long id, Listener listener) {
+        if (listeners.remove(id, listener)) {
+            liveCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void expungeCollected() {
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            OwnedListener listener = (OwnedListener) reference;
+            if (remove(listener.id, listener)) {
+                clearedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Run all callbacks in registration order
+     */
+    void runAll() {
+        long start = System.nanoTime();
+        try {
+            expungeCollected();
+            listeners.forEach(this::run);
+        } finally {
+            lastRunNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Run all callbacks, partitioned across the executor if there are at least parallelThreshold of them.  Callbacks
+     * within a partition run in registration order and one partition runs on the calling thread.  Returns once all
+     * callbacks have run, rethrowing the first failure if any.
+     * <p>
+     * The calling thread waits for callbacks running on other threads, so a callback that needs a lock held by the
+     * caller deadlocks.  Parallel mode is unsafe for callers that change the config while holding a lock, such as
+     * the monitor of {@code DefaultSettableConfig}, unless no callback acquires it.
+     */
+    void runAll(Executor executor, int parallelThreshold) {
+        if (parallelThreshold <= 0 || liveCount.get() < parallelThreshold) {
+            runAll();
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            expungeCollected();
+            List<Map.Entry<Long, Listener>> snapshot = new ArrayList<>(listeners.entrySet());
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            int size = snapshot.size();
+            int count = Math.min(partitions, size);
+
+            // Partition i is [i * size / count, (i + 1) * size / count), so sizes differ by at most one
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[count - 1];
+            for (int i = 1; i < count; i++) {
+                List<Map.Entry<Long, Listener>> partition =
+                        snapshot.subList((int) ((long) i * size / count), (int) ((long) (i + 1) * size / count));
+                futures[i - 1] = CompletableFuture.runAsync(() -> partition.forEach(this::run), executor);
+            }
+            try {
+                snapshot.subList(0, size / count).forEach(this::run);
+            } catch (RuntimeException | Error e) {
+                // Wait for the other partitions before rethrowing, keeping their failures as suppressed
+                try {
+                    join(futures);
+                } catch (RuntimeException | Error other) {
+                    e.addSuppressed(other);
+                }
+                throw e;
+            }
+            join(futures);
+        } finally {
+            lastRunNanos = System.nanoTime() - start;
+        }
+    }
+
+    private static void join(CompletableFuture<?>[] futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run(Map.Entry<Long, Listener> entry) {
+        run(entry.getKey(), entry.getValue());
+    }
+
+    private void run(Long id, Listener listener) {
+        if (!listener.run() && remove(id, listener)) {
+            clearedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Number of registered callbacks
+     */
+    int getLiveCount() {
+        return liveCount.get();
+    }
+
+    /**
+     * @return Number of callbacks removed because their owner was collected
+     */
+    long getClearedCount() {
+        return clearedCount.get();
+    }
+
+    /**
+     * @return Time taken by the last call to runAll, in nanoseconds
+     */
+    long getLastRunNanos() {
+        return lastRunNanos;
+    }
+}
@@ -0,0 +1,100 @@
+package com.netflix.archaius.cascade;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.netflix.archaius.api.StrInterpolator;
+import com.netflix.archaius.api.StrInterpolator.Lookup;
+
+/**
+ * Cache of the names generated by a cascade strategy, per resource name.  The same resources are loaded repeatedly,
+ * for example for every provisioned class annotated with the same ConfigurationSource, and the generated names only
+ * change when a variable they reference changes.
+ * <p>
+ * Each entry keeps the unresolved name templates along with the resolved names and every key read from the lookup
+ * while resolving them.  An entry is reused for as long as the lookup returns the same values for those keys, which
+ * is far cheaper than interpolating again, and otherwise the names are resolved again from the cached templates.
+ */
+final class CascadeNameCache {
+    private static final class Entry {
+        private final Object parameters;
+        private final List<String> templates;
+        private final StrInterpolator interpolator;
+        private final Lookup lookup;
+        private final Map<String, String> lookedUp;
+        private final List<String> names;
+
+        Entry(Object parameters, List<String> templates, StrInterpolator interpolator, Lookup lookup,
+              Map<String, String> lookedUp, List<String> names) {
+            this.parameters = parameters;
+            this.templates = templates;
+            this.interpolator = interpolator;
+            this.lookup = lookup;
+            this.lookedUp = lookedUp;
+            this.names = names;
+        }
+
+        boolean isResolvedWith(StrInterpolator interpolator, Lookup lookup) {
+            if (this.interpolator != interpolator || this.lookup != lookup) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : lookedUp.entrySet()) {
+                if (!Objects.equals(entry.getValue(), lookup.lookup(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Return the resolved names for a resource.
+     *
+     * @param resource      The resource name
+     * @param parameters    Strategy parameters from which the templates are built, compared with equals to detect
+     *                      changes
+     * @param templates     Function building the unresolved names for a resource
+     * @param firstResolved Index of the first template to interpolate.  Templates before it are returned as is
+     */
+    List<String> generate(String resource, Object parameters, Function<String, List<String>> templates,
+                          int firstResolved, StrInterpolator interpolator, Lookup lookup) {
+        Entry entry = entries.get(resource);
+        if (entry != null && entry.parameters.equals(parameters)) {
+            if (entry.isResolvedWith(interpolator, lookup)) {
+                return entry.names;
+            }
+        } else {
+            entry = null;
+        }
+
+        List<String> unresolved = entry != null ? entry.templates : templates.apply(resource);
+
+        // A single context for all names, recording every key read so the result can be validated later
+        Map<String, String> lookedUp = new HashMap<>();
+        StrInterpolator.Context context = interpolator.create(key -> {
+            String value = lookup.lookup(key);
+            if (!lookedUp.containsKey(key)) {
+                lookedUp.put(key, value);
+            }
+            return value;
+        });
+
+        List<String> names = new ArrayList<>(unresolved.size());
+        for (int i = 0; i < unresolved.size(); i++) {
+            names.add(i < firstResolved ? unresolved.get(i) : context.resolve(unresolved.get(i)));
+        }
+        names = Collections.unmodifiableList(names);
+
+        entries.put(resource, new Entry(parameters, unresolved, interpolator, lookup, lookedUp, names));
+        return names;
+    }
+}
@@ -39,6 +39,7 @@ public class ConcatCascadeStrategy implements CascadeStrategy {
     
     private final List<String> parameters;
     private final String separator;
+    private final CascadeNameCache cache = new CascadeNameCache();
     
     public static ConcatCascadeStrategy from(String ... parameters) {
         ArrayList<String> params = new ArrayList<String>();
@@ -68,6 +69,11 @@ public class ConcatCascadeStrategy implements CascadeStrategy {
     
     @Override
     public List<String> generate(String name, StrInterpolator interpolator, StrInterpolator.Lookup lookup) {
+        // The resource name itself is returned as is and only the concatenations are interpolated
+        return cache.generate(name, parameters, this::concatenate, 1, interpolator, lookup);
+    }
+
+    private List<String> concatenate(String name) {
         ArrayList<String> result = new ArrayList<String>();
         
         result.add(name);
@@ -75,7 +81,7 @@ public class ConcatCascadeStrategy implements CascadeStrategy {
         String current = name;
         for (String param : parameters) {
             current += separator + param;
-            result.add(interpolator.create(lookup).resolve(current));
+            result.add(current);
         }
 
         return result;
@@ -8,11 +8,18 @@ import com.netflix.archaius.api.StrInterpolator;
 import com.netflix.archaius.api.StrInterpolator.Lookup;
 
 public abstract class InterpolatingCascadeStrategy implements CascadeStrategy {
+    private final CascadeNameCache cache = new CascadeNameCache();
+
     @Override
     public final List<String> generate(String resource, StrInterpolator interpolator, Lookup lookup) {
-        List<String> result = new ArrayList<>();
-        for (String option : getPermutations()) {
-            result.add(interpolator.create(lookup).resolve(String.format(option, resource)));
+        List<String> permutations = getPermutations();
+        return cache.generate(resource, permutations, name -> format(permutations, name), 0, interpolator, lookup);
+    }
+
+    private static List<String> format(List<String> permutations, String resource) {
+        List<String> result = new ArrayList<>(permutations.size());
+        for (String option : permutations) {
+            result.add(String.format(option, resource));
         }
         return result;
     }
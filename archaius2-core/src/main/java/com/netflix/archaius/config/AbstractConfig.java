@@ -18,6 +18,7 @@ package com.netflix.archaius.config;
 import com.netflix.archaius.DefaultDecoder;
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.ConfigListener;
+import com.netflix.archaius.api.ConfigSnapshot;
 import com.netflix.archaius.api.Decoder;
 import com.netflix.archaius.api.StrInterpolator;
 import com.netflix.archaius.api.StrInterpolator.Lookup;
@@ -47,6 +48,7 @@ public abstract class AbstractConfig implements Config {
     private final String name;
     
     private static final AtomicInteger idCounter = new AtomicInteger();
+    private static final int MAX_SNAPSHOT_ATTEMPTS = 3;
     protected static String generateUniqueName(String prefix) {
         return prefix + idCounter.incrementAndGet();
     }
@@ -277,6 +279,28 @@ public abstract class AbstractConfig implements Config {
                 new NumberFormatException("Property " + rawProp.toString() + " is of wrong format " + type.getTypeName()));
     }
 
+    /**
+     * Take a snapshot of a copy of all properties.  Configs with an immutable internal state should override this to
+     * share it instead.  If the config keeps changing while it is copied, the snapshot has no generation.
+     */
+    @Override
+    public ConfigSnapshot snapshot() {
+        // A copy only matches its generation if nothing changed while copying, otherwise two snapshots could report
+        // the same generation for different content
+        long generation = getGeneration();
+        for (int attempt = 1; ; attempt++) {
+            CachedState copy = ViewStates.copyOf(this);
+            long after = getGeneration();
+            if (after == generation) {
+                return new StateSnapshot(this, copy, generation);
+            }
+            if (attempt == MAX_SNAPSHOT_ATTEMPTS) {
+                return new StateSnapshot(this, copy, -1);
+            }
+            generation = after;
+        }
+    }
+
     @Override
     public String resolve(String value) {
         return interpolator.create(getLookup()).resolve(value);
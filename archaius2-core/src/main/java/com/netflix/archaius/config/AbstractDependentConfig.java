@@ -1,7 +1,9 @@
 package com.netflix.archaius.config;
 
+import com.netflix.archaius.api.ConfigSnapshot;
 import com.netflix.archaius.api.PropertyDetails;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.function.BiConsumer;
 
@@ -15,6 +17,15 @@ import java.util.function.BiConsumer;
  */
 public abstract class AbstractDependentConfig extends AbstractConfig {
 
+    /**
+     * Generations are only tracked once {@link #getGeneration()} is first called.  From then on updates that know
+     * which keys they changed report them with {@link #stateChanged}, and any other state change is found by comparing
+     * the state last tracked with the current one.  Refreshes that end up with the same content don't change the
+     * generation.
+     */
+    private final GenerationTracker generations = new GenerationTracker();
+    private volatile CachedState trackedState;
+
     public AbstractDependentConfig(String name) {
         super(name);
     }
@@ -50,6 +61,13 @@ public abstract class AbstractDependentConfig extends AbstractConfig {
         return getState().getData().keySet();
     }
 
+    /** Return the keys starting with the prefix via a range lookup on the sorted key index of the current state. */
+    @Override
+    @Deprecated
+    public Iterator<String> getKeys(String prefix) {
+        return getState().getKeysWithPrefix(prefix).iterator();
+    }
+
     @Override
     public void forEachProperty(BiConsumer<String, Object> consumer) {
         getState().getData().forEach((k, v) -> {
@@ -65,6 +83,82 @@ public abstract class AbstractDependentConfig extends AbstractConfig {
         getState().getData().forEach(consumer);
     }
 
+    /** Pin the snapshot to the current state, which is already immutable, rather than copying it. */
+    @Override
+    public ConfigSnapshot snapshot() {
+        CachedState state = getState();
+        if (ViewStates.readsThrough(state) || LazyCompositeState.isLazy(state)) {
+            return super.snapshot();
+        }
+        return new StateSnapshot(this, state, track(state).get());
+    }
+
+    @Override
+    public long getGeneration() {
+        return getGeneration("");
+    }
+
+    @Override
+    public long getGeneration(String prefix) {
+        CachedState state = getState();
+        if (ViewStates.readsThrough(state)) {
+            return ViewStates.parentGeneration(state, prefix);
+        }
+        return track(state).get(prefix);
+    }
+
+    private GenerationTracker track(CachedState state) {
+        if (state != trackedState) {
+            synchronized (generations) {
+                CachedState previous = trackedState;
+                if (state != previous) {
+                    // First query, or the update that published the state hasn't reported it yet
+                    advance(previous, state, null);
+                }
+            }
+        }
+        return generations;
+    }
+
+    /**
+     * Report that the state was replaced, once the next state is published, so that the generation is updated by the
+     * writer instead of by diffing both states on the next query.  Reports that arrive out of order, or before
+     * generations are tracked, are ignored and left to the next query.
+     *
+     * @param changedKeys Keys whose value changed, or null if the update doesn't know them
+     */
+    void stateChanged(CachedState previous, CachedState next, Collection<String> changedKeys) {
+        if (previous == next || trackedState != previous) {
+            return;
+        }
+        if (changedKeys == null && !LazyCompositeState.isLazy(next)) {
+            // Diff before taking the lock so that queries aren't blocked by it
+            changedKeys = GenerationTracker.changedKeys(previous.getData(), next.getData());
+        }
+        synchronized (generations) {
+            if (trackedState == previous) {
+                advance(previous, next, changedKeys);
+            }
+        }
+    }
+
+    private void advance(CachedState previous, CachedState next, Collection<String> changedKeys) {
+        if (LazyCompositeState.isLazy(next)) {
+            // Which keys changed isn't known without flattening, so assume any of them may have
+            generations.changedAll();
+        } else if (changedKeys != null) {
+            generations.changed(changedKeys);
+        } else if (previous == null) {
+            // First query, when no prefix is tracked yet, so only whether there is any content matters
+            if (!next.getData().isEmpty()) {
+                generations.changedAll();
+            }
+        } else {
+            generations.changed(previous.getData(), next.getData());
+        }
+        trackedState = next;
+    }
+
     @Override
     public boolean containsKey(String key) {
         return getState().getData().containsKey(key);
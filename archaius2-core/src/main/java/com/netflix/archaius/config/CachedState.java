@@ -1,18 +1,41 @@
 package com.netflix.archaius.config;
 
 import com.netflix.archaius.api.Config;
+import com.netflix.archaius.util.CompactHashMap;
+import com.netflix.archaius.util.PersistentHashMap;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /** Represents an immutable, current view of a dependent config over its parent configs. */
 class CachedState {
+    /**
+     * Marker for maps that are read only views by construction and are used as is, so that their type can still be
+     * checked on the state.
+     */
+    interface ReadOnlyView {}
+
     private final Map<String, Object> data;
     private final Map<String, Config> instrumentedKeys;
 
+    /**
+     * Sorted copy of the keys in {@link #data}, used to answer prefix queries with a binary search instead of a scan
+     * of every key. Built lazily on the first prefix query and then shared by every prefixed view over this state.
+     */
+    private volatile String[] sortedKeys;
+
     CachedState(Map<String, Object> data, Map<String, Config> instrumentedKeys) {
-        this.data = Collections.unmodifiableMap(data);
-        this.instrumentedKeys = Collections.unmodifiableMap(instrumentedKeys);
+        this.data = unmodifiable(data);
+        this.instrumentedKeys = unmodifiable(instrumentedKeys);
+    }
+
+    private static <V> Map<String, V> unmodifiable(Map<String, V> map) {
+        // Persistent and compact maps are already immutable, no need for another wrapper on the read path
+        return map instanceof PersistentHashMap || map instanceof CompactHashMap || map instanceof ReadOnlyView
+                ? map
+                : Collections.unmodifiableMap(map);
     }
 
     Map<String, Object> getData() {
@@ -22,4 +45,35 @@ class CachedState {
     Map<String, Config> getInstrumentedKeys() {
         return instrumentedKeys;
     }
+
+    /**
+     * Return all keys starting with the provided prefix, in natural order. The lookup is a range query over the sorted
+     * key index so its cost is proportional to the number of matching keys rather than the size of the state.
+     */
+    List<String> getKeysWithPrefix(String prefix) {
+        String[] keys = getSortedKeys();
+        int start = findFirst(keys, prefix);
+        int end = start;
+        while (end < keys.length && keys[end].startsWith(prefix)) {
+            end++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(keys).subList(start, end));
+    }
+
+    private String[] getSortedKeys() {
+        String[] keys = sortedKeys;
+        if (keys == null) {
+            // Benign race; concurrent callers may each build an identical index
+            keys = data.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            sortedKeys = keys;
+        }
+        return keys;
+    }
+
+    /** Index of the first key that is greater than or equal to the prefix. */
+    private static int findFirst(String[] keys, String prefix) {
+        int index = Arrays.binarySearch(keys, prefix);
+        return index >= 0 ? index : -(index + 1);
+    }
 }
@@ -15,20 +15,26 @@
  */
 package com.netflix.archaius.config;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 import com.netflix.archaius.util.Maps;
+import com.netflix.archaius.util.PersistentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.netflix.archaius.api.Config;
-import com.netflix.archaius.api.ConfigListener;
 import com.netflix.archaius.api.exceptions.ConfigException;
 
 /**
@@ -50,17 +56,22 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
      */
     public static class Builder {
         LinkedHashMap<String, Config> configs = new LinkedHashMap<>();
+        private boolean lazy;
         
         public Builder withConfig(String name, Config config) {
             configs.put(name, config);
             return this;
         }
+
+        /** Resolve keys lazily, see {@link LazyCompositeState}. */
+        public Builder withLazyResolution() {
+            this.lazy = true;
+            return this;
+        }
         
         public com.netflix.archaius.api.config.CompositeConfig build() throws ConfigException {
-            com.netflix.archaius.api.config.CompositeConfig config = new DefaultCompositeConfig();
-            for (Entry<String, Config> entry : configs.entrySet()) {
-                config.addConfig(entry.getKey(), entry.getValue());
-            }
+            com.netflix.archaius.api.config.CompositeConfig config = new DefaultCompositeConfig(false, lazy);
+            config.addConfigs(configs);
             return config;
         }
     }
@@ -73,64 +84,273 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
         return DefaultCompositeConfig.builder().build();
     }
     
+    /**
+     * Builder for the flattened maps of a state, tracking the keys won by each child so that an update of a child only
+     * needs to resolve the keys it holds or held.
+     */
+    private static final class Flattener {
+        private final PersistentHashMap.Builder<String, Object> data;
+        private final PersistentHashMap.Builder<String, Config> instrumentedKeys;
+        /** Keys won by each child, by identity, as of the state the flattener started from */
+        private final Map<Config, PersistentHashMap<String, Boolean>> previousWonKeys;
+        private final Map<Config, PersistentHashMap.Builder<String, Boolean>> wonKeys = new IdentityHashMap<>();
+        /** Keys whose value changed from the state the flattener started from, if requested */
+        private final Collection<String> changedKeys;
+
+        private Flattener() {
+            this.data = PersistentHashMap.builder();
+            this.instrumentedKeys = PersistentHashMap.builder();
+            this.previousWonKeys = Collections.emptyMap();
+            this.changedKeys = null;
+        }
+
+        private Flattener(State state, Collection<String> changedKeys) {
+            this.data = state.data.toBuilder();
+            this.instrumentedKeys = state.instrumentedKeys.toBuilder();
+            this.previousWonKeys = state.wonKeys;
+            this.changedKeys = changedKeys;
+        }
+
+        private PersistentHashMap<String, Boolean> previouslyWonBy(Config child) {
+            return previousWonKeys.getOrDefault(child, PersistentHashMap.empty());
+        }
+
+        private PersistentHashMap.Builder<String, Boolean> wonBy(Config child) {
+            return wonKeys.computeIfAbsent(child, c -> previouslyWonBy(c).toBuilder());
+        }
+
+        /** The child among the candidates that currently wins the key, or null if none does. */
+        private Config winnerOf(String key, Collection<Config> candidates) {
+            if (!data.containsKey(key)) {
+                return null;
+            }
+            for (Config child : candidates) {
+                PersistentHashMap.Builder<String, Boolean> keys = wonKeys.get(child);
+                if (keys != null ? keys.containsKey(key) : previouslyWonBy(child).containsKey(key)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /** Make the child win the key, taking it over from the previous winner if there is one. */
+        private void put(String key, Object value, Config child, boolean instrumented, Config previousWinner) {
+            if (changedKeys != null && (previousWinner == null || !Objects.equals(value, data.get(key)))) {
+                changedKeys.add(key);
+            }
+            data.put(key, value);
+            if (instrumented) {
+                instrumentedKeys.put(key, child);
+            } else {
+                instrumentedKeys.remove(key);
+            }
+            if (previousWinner != child) {
+                if (previousWinner != null) {
+                    wonBy(previousWinner).remove(key);
+                }
+                wonBy(child).put(key, Boolean.TRUE);
+            }
+        }
+
+        /** Merge a child with lower precedence than everything already merged. */
+        private void mergeLowest(Config child) {
+            boolean instrumented = child.instrumentationEnabled();
+            child.forEachPropertyUninstrumented((k, v) -> {
+                if (!data.containsKey(k)) {
+                    put(k, v, child, instrumented, null);
+                }
+            });
+        }
+
+        /** Merge a child with higher precedence than all of the others, which are the only possible winners. */
+        private void mergeHighest(Config child, Collection<Config> others) {
+            boolean instrumented = child.instrumentationEnabled();
+            child.forEachPropertyUninstrumented((k, v) -> put(k, v, child, instrumented, winnerOf(k, others)));
+        }
+
+        /** Look up the winning value of a key in the candidates, given in order of precedence. */
+        private void resolve(String key, List<Config> candidates) {
+            Config previousWinner = winnerOf(key, candidates);
+            for (Config child : candidates) {
+                Object value = child.getRawPropertyUninstrumented(key);
+                // A key held with a null value wins, as it does when merging the whole child
+                if (value != null || child.containsKey(key)) {
+                    put(key, value, child, child.instrumentationEnabled(), previousWinner);
+                    return;
+                }
+            }
+            if (previousWinner != null) {
+                if (changedKeys != null) {
+                    changedKeys.add(key);
+                }
+                data.remove(key);
+                instrumentedKeys.remove(key);
+                wonBy(previousWinner).remove(key);
+            }
+        }
+
+        private Map<Config, PersistentHashMap<String, Boolean>> buildWonKeys() {
+            Map<Config, PersistentHashMap<String, Boolean>> built = new IdentityHashMap<>(previousWonKeys);
+            wonKeys.forEach((child, keys) -> built.put(child, keys.build()));
+            return built;
+        }
+    }
+
     private class State {
         private final Map<String, Config> children;
+        private final PersistentHashMap<String, Object> data;
+        private final PersistentHashMap<String, Config> instrumentedKeys;
+        /** Keys won by each child, by identity */
+        private final Map<Config, PersistentHashMap<String, Boolean>> wonKeys;
+        /** Resolves keys on demand in lazy mode, in which case the flattened maps are left empty */
+        private final LazyCompositeState lazyState;
         private final CachedState cachedState;
-        
-        public State(Map<String, Config> children, int size) {
+
+        /** Flatten all children, giving precedence to the child that comes first, or resolve them lazily. */
+        State(Map<String, Config> children) {
             this.children = children;
-            Map<String, Object> data = Maps.newHashMap(size);
-            Map<String, Config> instrumentedKeys = new HashMap<>();
-            for (Config child : children.values()) {
-                boolean instrumented = child.instrumentationEnabled();
-                child.forEachPropertyUninstrumented(
-                        (k, v) -> updateData(data, instrumentedKeys, k, v, child, instrumented));
+            if (lazy) {
+                this.data = PersistentHashMap.empty();
+                this.instrumentedKeys = PersistentHashMap.empty();
+                this.wonKeys = Collections.emptyMap();
+                this.lazyState = LazyCompositeState.of(children.values());
+                this.cachedState = lazyState.getCachedState();
+                return;
             }
+            Flattener flattener = new Flattener();
+            children.values().forEach(flattener::mergeLowest);
+            this.data = flattener.data.build();
+            this.instrumentedKeys = flattener.instrumentedKeys.build();
+            this.wonKeys = flattener.buildWonKeys();
+            this.lazyState = null;
             this.cachedState = new CachedState(data, instrumentedKeys);
         }
 
-        private void updateData(
-                Map<String, Object> data,
-                Map<String, Config> instrumentedKeys,
-                String key,
-                Object value,
-                Config childConfig,
-                boolean instrumented) {
-            if (!data.containsKey(key)) {
-                if (instrumented) {
-                    instrumentedKeys.put(key, childConfig);
+        private State(Map<String, Config> children, Flattener flattener) {
+            this.children = children;
+            this.data = flattener.data.build();
+            this.instrumentedKeys = flattener.instrumentedKeys.build();
+            this.wonKeys = flattener.buildWonKeys();
+            this.lazyState = null;
+            this.cachedState = new CachedState(data, instrumentedKeys);
+        }
+
+        private State(Map<String, Config> children, LazyCompositeState lazyState) {
+            this.children = children;
+            this.data = PersistentHashMap.empty();
+            this.instrumentedKeys = PersistentHashMap.empty();
+            this.wonKeys = Collections.emptyMap();
+            this.lazyState = lazyState;
+            this.cachedState = lazyState.getCachedState();
+        }
+
+        /**
+         * Add children, in order.  Since new children are either first or last in precedence only their own properties
+         * need to be merged into the current data, which is otherwise shared with the previous state.
+         */
+        State addConfigs(Map<String, Config> configs) {
+            LinkedHashMap<String, Config> children = withAdded(this.children, configs);
+            if (lazy) {
+                return new State(children);
+            }
+            Flattener flattener = new Flattener(this, null);
+            if (reversed) {
+                // Each child added takes precedence over all children added before it
+                List<Config> others = new ArrayList<>(this.children.values());
+                for (Config config : configs.values()) {
+                    flattener.mergeHighest(config, others);
+                    others.add(config);
                 }
-                data.put(key, value);
+            } else {
+                configs.values().forEach(flattener::mergeLowest);
             }
+            return new State(children, flattener);
         }
         
-        State addConfig(String name, Config config) {
-            LinkedHashMap<String, Config> children = Maps.newLinkedHashMap(this.children.size() + 1);
+        /** Remove children by name and add the replacements where new children would be added. */
+        State replaceConfigs(Collection<String> names, Map<String, Config> replacements) {
+            LinkedHashMap<String, Config> remaining = new LinkedHashMap<>(this.children);
+            remaining.keySet().removeAll(names);
+            return new State(withAdded(remaining, replacements));
+        }
+
+        private LinkedHashMap<String, Config> withAdded(Map<String, Config> existing, Map<String, Config> added) {
+            LinkedHashMap<String, Config> children = Maps.newLinkedHashMap(existing.size() + added.size());
             if (reversed) {
-                children.put(name, config);
-                children.putAll(this.children);
+                List<Entry<String, Config>> entries = new ArrayList<>(added.entrySet());
+                Collections.reverse(entries);
+                entries.forEach(entry -> children.put(entry.getKey(), entry.getValue()));
+                children.putAll(existing);
             } else {
-                children.putAll(this.children);
-                children.put(name, config);
+                children.putAll(existing);
+                children.putAll(added);
             }
-            Iterable<String> keysIterable = config.keys();
-            int size = keysIterable instanceof Collection<?> ? ((Collection<String>) keysIterable).size() : 16;
-            return new State(children, cachedState.getData().size() + size);
+            return children;
         }
-        
-        State removeConfig(String name) {
-            if (children.containsKey(name)) {
-                LinkedHashMap<String, Config> children = new LinkedHashMap<>(this.children);
-                children.remove(name);
-                return new State(children, cachedState.getData().size());
+
+        State removeConfigs(Collection<String> names) {
+            LinkedHashMap<String, Config> children = new LinkedHashMap<>(this.children);
+            if (children.keySet().removeAll(names)) {
+                return new State(children);
             }
             return this;
         }
 
         public State refresh() {
-            return new State(children, cachedState.getData().size());
+            return new State(children);
+        }
+
+        /**
+         * Refresh after an update of a child.  Only the keys the child holds now or won before are resolved again,
+         * starting at the child, and keys won by a child with higher precedence are skipped.  Falls back to a full
+         * refresh when the config isn't a direct child or is a child more than once.  In lazy mode only what was
+         * resolved from or below the child is forgotten, and the changed keys aren't known.
+         *
+         * @param changedKeys Receives the keys whose value changed
+         */
+        State refresh(Config updated, Collection<String> changedKeys) {
+            if (lazy) {
+                return new State(children, lazyState.update(updated));
+            }
+            List<Config> ordered = new ArrayList<>(children.values());
+            int index = -1;
+            for (int i = 0; i < ordered.size(); i++) {
+                if (ordered.get(i) == updated) {
+                    if (index != -1) {
+                        return refreshAll(changedKeys);
+                    }
+                    index = i;
+                }
+            }
+            if (index == -1) {
+                return refreshAll(changedKeys);
+            }
+
+            PersistentHashMap<String, Boolean> won = wonKeys.getOrDefault(updated, PersistentHashMap.empty());
+            List<Config> higher = ordered.subList(0, index);
+            Set<String> affected = new HashSet<>(won.keySet());
+            Flattener flattener = new Flattener(this, changedKeys);
+            updated.forEachPropertyUninstrumented((key, value) -> {
+                if (!won.containsKey(key) && flattener.winnerOf(key, higher) == null) {
+                    affected.add(key);
+                }
+            });
+            if (affected.isEmpty()) {
+                return this;
+            }
+
+            List<Config> candidates = ordered.subList(index, ordered.size());
+            for (String key : affected) {
+                flattener.resolve(key, candidates);
+            }
+            return new State(children, flattener);
         }
 
+        private State refreshAll(Collection<String> changedKeys) {
+            State refreshed = refresh();
+            changedKeys.addAll(GenerationTracker.changedKeys(data, refreshed.data));
+            return refreshed;
+        }
 
         Config getConfig(String name) {
             return children.get(name);
@@ -142,12 +362,19 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
     }
 
     /**
-     * Listener to be added to any component configs which updates the config map and triggers updates on all listeners
-     * when any of the components are updated.
+     * Listener added to each child, which updates the config map and triggers updates on all listeners when the child
+     * is updated.  The child is the one the listener was added to rather than the config carried by the event, since
+     * a view forwards listeners to its parent and its events then carry the parent.  Listeners for the same child and
+     * config are equal, so that one can be removed without keeping track of it.
      */
     private static class CompositeConfigListener extends DependentConfigListener<DefaultCompositeConfig> {
-        private CompositeConfigListener(DefaultCompositeConfig config) {
+        private final Config child;
+        private final int configHash;
+
+        private CompositeConfigListener(DefaultCompositeConfig config, Config child) {
             super(config);
+            this.child = child;
+            this.configHash = System.identityHashCode(config);
         }
 
         @Override
@@ -164,28 +391,56 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
 
         @Override
         public void onSourceConfigUpdated(DefaultCompositeConfig dcc, Config config) {
-            dcc.refreshState();
-            dcc.notifyConfigUpdated(dcc);
+            if (dcc.refreshState(child)) {
+                dcc.notifyConfigUpdated(dcc);
+            }
         }
 
         @Override
         public void onSourceError(Throwable error, DefaultCompositeConfig dcc, Config config) {
             dcc.notifyError(error, dcc);
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CompositeConfigListener)) {
+                return false;
+            }
+            CompositeConfigListener other = (CompositeConfigListener) o;
+            DefaultCompositeConfig config = getDependentConfig();
+            return child == other.child && config != null && config == other.getDependentConfig();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * configHash + System.identityHashCode(child);
+        }
     }
     
-    private final ConfigListener listener;
     private final boolean reversed;
+    private final boolean lazy;
+    private final Object stateLock = new Object();
     private volatile State state;
     public DefaultCompositeConfig() {
         this(false);
     }
     
     public DefaultCompositeConfig(boolean reversed) {
+        this(reversed, false);
+    }
+
+    /**
+     * @param reversed True if configs added later take precedence over configs added before them
+     * @param lazy True to resolve keys from the children when they are read, see {@link LazyCompositeState}
+     */
+    public DefaultCompositeConfig(boolean reversed, boolean lazy) {
         this.reversed = reversed;
-        this.listener = new CompositeConfigListener(this);
+        this.lazy = lazy;
         
-        this.state = new State(Collections.emptyMap(), 0);
+        this.state = new State(Collections.emptyMap());
     }
 
     @Override
@@ -194,7 +449,40 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
     }
 
     private void refreshState() {
-        this.state = state.refresh();
+        updateState(State::refresh);
+    }
+
+    /**
+     * Refresh after an update of a child.
+     *
+     * @return True if any value changed, so that updates hidden by a child with higher precedence aren't notified
+     */
+    private boolean refreshState(Config updated) {
+        List<String> changedKeys = new ArrayList<>();
+        updateState(current -> current.refresh(updated, changedKeys), changedKeys);
+        return lazy || !changedKeys.isEmpty();
+    }
+
+    /** Replace the state with one derived from the current state. */
+    private void updateState(UnaryOperator<State> update) {
+        updateState(update, null);
+    }
+
+    /**
+     * A refresh after an update of a child builds on the current state, so it must not race with a change to the set
+     * of children.
+     *
+     * @param changedKeys Receives the keys changed by the update, if it tracks them, or null otherwise
+     */
+    private void updateState(UnaryOperator<State> update, Collection<String> changedKeys) {
+        State previous;
+        State next;
+        synchronized (stateLock) {
+            previous = state;
+            next = update.apply(previous);
+            state = next;
+        }
+        stateChanged(previous.cachedState, next.cachedState, changedKeys);
     }
 
 
@@ -206,6 +494,16 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
     private synchronized boolean internalAddConfig(String name, Config child) throws ConfigException {
         LOG.info("Adding config {} to {}", name, hashCode());
         
+        if (!canAdd(name, child)) {
+            return false;
+        }
+
+        updateState(current -> current.addConfigs(Collections.singletonMap(name, child)));
+        postConfigAdded(child);
+        return true;
+    }
+
+    private boolean canAdd(String name, Config child) throws ConfigException {
         if (child == null) {
             // TODO: Log a warning?
             return false;
@@ -219,24 +517,65 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
             LOG.info("Configuration with name'{}' already exists", name);
             return false;
         }
-
-        state = state.addConfig(name, child);
-        postConfigAdded(child);
         return true;
     }
-    
+
+    /**
+     * Add all configs in a single update of the composite's state, followed by a single onConfigAdded event for the
+     * composite itself.  Configs are added in iteration order, exactly as if {@link #addConfig(String, Config)} had
+     * been called for each of them.
+     */
     @Override
     public synchronized void addConfigs(LinkedHashMap<String, Config> configs) throws ConfigException {
+        LinkedHashMap<String, Config> added = new LinkedHashMap<>();
         for (Entry<String, Config> entry : configs.entrySet()) {
-            internalAddConfig(entry.getKey(), entry.getValue());
+            LOG.info("Adding config {} to {}", entry.getKey(), hashCode());
+            if (canAdd(entry.getKey(), entry.getValue())) {
+                added.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (added.isEmpty()) {
+            return;
         }
+
+        updateState(current -> current.addConfigs(added));
+        added.values().forEach(this::attachChild);
+        notifyConfigAdded(this);
     }
 
+    /**
+     * Replace all configs in a single update of the composite's state, followed by a single onConfigUpdated event for
+     * the composite itself.  As with {@link #replaceConfig(String, Config)} replaced configs are removed and then added
+     * back in iteration order.
+     */
     @Override
-    public void replaceConfigs(LinkedHashMap<String, Config> configs) throws ConfigException {
+    public synchronized void replaceConfigs(LinkedHashMap<String, Config> configs) throws ConfigException {
+        LinkedHashMap<String, Config> replacements = new LinkedHashMap<>();
         for (Entry<String, Config> entry : configs.entrySet()) {
-            replaceConfig(entry.getKey(), entry.getValue());
+            if (entry.getKey() == null) {
+                throw new ConfigException("Child configuration must be named");
+            }
+            if (entry.getValue() != null) {
+                replacements.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<Config> removed = new ArrayList<>();
+        for (String name : configs.keySet()) {
+            Config child = state.getConfig(name);
+            if (child != null) {
+                removed.add(child);
+            }
         }
+        if (removed.isEmpty() && replacements.isEmpty()) {
+            return;
+        }
+
+        // Removing children requires a full flatten, so do it once with the replacements already in place
+        updateState(current -> current.replaceConfigs(configs.keySet(), replacements));
+        removed.forEach(child -> child.removeListener(new CompositeConfigListener(this, child)));
+        replacements.values().forEach(this::attachChild);
+        notifyConfigUpdated(this);
     }
 
     @Override
@@ -248,7 +587,13 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
         child.setStrInterpolator(getStrInterpolator());
         child.setDecoder(getDecoder());
         notifyConfigAdded(child);
-        child.addListener(listener);
+        child.addListener(new CompositeConfigListener(this, child));
+    }
+
+    private void attachChild(Config child) {
+        child.setStrInterpolator(getStrInterpolator());
+        child.setDecoder(getDecoder());
+        child.addListener(new CompositeConfigListener(this, child));
     }
 
     @Override
@@ -265,8 +610,8 @@ public class DefaultCompositeConfig extends AbstractDependentConfig implements c
     public synchronized Config internalRemoveConfig(String name) {
         Config child = state.getConfig(name);
         if (child != null) {
-            state = state.removeConfig(name);
-            child.removeListener(listener);
+            updateState(current -> current.removeConfigs(Collections.singleton(name)));
+            child.removeListener(new CompositeConfigListener(this, child));
             this.notifyConfigRemoved(child);
         }
         return child;
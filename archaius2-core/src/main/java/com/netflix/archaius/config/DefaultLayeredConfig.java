@@ -1,9 +1,9 @@
 package com.netflix.archaius.config;
 
 import com.netflix.archaius.api.Config;
-import com.netflix.archaius.api.ConfigListener;
 import com.netflix.archaius.api.Layer;
 import com.netflix.archaius.api.config.LayeredConfig;
+import com.netflix.archaius.util.PersistentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,10 +13,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -29,16 +34,23 @@ import java.util.stream.Collectors;
 public class DefaultLayeredConfig extends AbstractDependentConfig implements LayeredConfig {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultLayeredConfig.class);
     
-    private final ConfigListener listener;
-    private volatile ImmutableCompositeState state = new ImmutableCompositeState(Collections.emptyList());
+    private final Object stateLock = new Object();
+    private volatile ImmutableCompositeState state;
 
     /**
-     * Listener to be added to any component configs which updates the config map and triggers updates on all listeners
-     * when any of the components are updated.
+     * Listener added to each child, which updates the config map and triggers updates on all listeners when the child
+     * is updated.  The child is the one the listener was added to rather than the config carried by the event, since
+     * a view forwards listeners to its parent and its events then carry the parent.  Listeners for the same child and
+     * config are equal, so that one can be removed without keeping track of it.
      */
     private static class LayeredConfigListener extends DependentConfigListener<DefaultLayeredConfig> {
-        private LayeredConfigListener(DefaultLayeredConfig config) {
+        private final Config child;
+        private final int configHash;
+
+        private LayeredConfigListener(DefaultLayeredConfig config, Config child) {
             super(config);
+            this.child = child;
+            this.configHash = System.identityHashCode(config);
         }
 
         @Override
@@ -55,27 +67,124 @@ public class DefaultLayeredConfig extends AbstractDependentConfig implements Lay
 
         @Override
         public void onSourceConfigUpdated(DefaultLayeredConfig dlc, Config config) {
-            dlc.refreshState();
-            dlc.notifyConfigUpdated(dlc);
+            if (dlc.refreshState(child)) {
+                dlc.notifyConfigUpdated(dlc);
+            }
         }
 
         @Override
         public void onSourceError(Throwable error, DefaultLayeredConfig dlc, Config config) {
             dlc.notifyError(error, dlc);
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LayeredConfigListener)) {
+                return false;
+            }
+            LayeredConfigListener other = (LayeredConfigListener) o;
+            DefaultLayeredConfig config = getDependentConfig();
+            return child == other.child && config != null && config == other.getDependentConfig();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * configHash + System.identityHashCode(child);
+        }
     }
     
+    /**
+     * The builder provides a fluent style API to create a LayeredConfig with all its configs added in a single update.
+     */
+    public static class Builder {
+        private final List<LayerAndConfig> children = new ArrayList<>();
+        private String name;
+        private boolean lazy;
+
+        public Builder withName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /** Resolve keys lazily, see {@link LazyCompositeState}. */
+        public Builder withLazyResolution() {
+            this.lazy = true;
+            return this;
+        }
+
+        public Builder withConfig(Layer layer, Config config) {
+            if (config != null) {
+                children.add(new LayerAndConfig(layer, config, insertionOrderCounter.incrementAndGet()));
+            }
+            return this;
+        }
+
+        public LayeredConfig build() {
+            DefaultLayeredConfig config = new DefaultLayeredConfig(
+                    name == null ? generateUniqueName("layered-") : name, lazy);
+            config.internalAddConfigs(children);
+            return config;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
     public DefaultLayeredConfig() {
         this(generateUniqueName("layered-"));
     }
     
     public DefaultLayeredConfig(String name) {
+        this(name, false);
+    }
+
+    /**
+     * @param lazy True to resolve keys from the children when they are read, see {@link LazyCompositeState}
+     */
+    public DefaultLayeredConfig(String name, boolean lazy) {
         super(name);
-        this.listener = new LayeredConfigListener(this);
+        this.state = ImmutableCompositeState.of(Collections.emptyList(), lazy);
     }
     
     private void refreshState() {
-        this.state = state.refresh();
+        updateState(ImmutableCompositeState::refresh);
+    }
+
+    /**
+     * Refresh after an update of a child.
+     *
+     * @return True if any value changed, which is false when a higher layer hides the update
+     */
+    private boolean refreshState(Config updated) {
+        List<String> changedKeys = new ArrayList<>();
+        updateState(current -> current.refresh(updated, changedKeys), changedKeys);
+        return state.isLazy() || !changedKeys.isEmpty();
+    }
+
+    /** Replace the state with one derived from the current state. */
+    private void updateState(UnaryOperator<ImmutableCompositeState> update) {
+        updateState(update, null);
+    }
+
+    /**
+     * Updates are serialized since a refresh only resolves the keys of the child that changed, and would otherwise
+     * lose concurrent updates of other children.
+     *
+     * @param changedKeys Receives the keys changed by the update, if it tracks them, or null otherwise
+     */
+    private void updateState(UnaryOperator<ImmutableCompositeState> update, Collection<String> changedKeys) {
+        ImmutableCompositeState previous;
+        ImmutableCompositeState next;
+        synchronized (stateLock) {
+            previous = state;
+            next = update.apply(previous);
+            state = next;
+        }
+        stateChanged(previous.cachedState, next.cachedState, changedKeys);
     }
 
     @Override
@@ -91,19 +200,68 @@ public class DefaultLayeredConfig extends AbstractDependentConfig implements Lay
             return;
         }
         
-        state = state.addChild(new LayerAndConfig(layer, child, position));
+        List<LayerAndConfig> added = Collections.singletonList(new LayerAndConfig(layer, child, position));
+        updateState(current -> current.addChildren(added));
         child.setStrInterpolator(getStrInterpolator());
         child.setDecoder(getDecoder());
         notifyConfigUpdated(this);
-        child.addListener(listener);
+        child.addListener(new LayeredConfigListener(this, child));
+    }
+
+    /**
+     * Add all configs with a single update of the flattened state and a single onConfigUpdated event.
+     */
+    @Override
+    public synchronized void addConfigs(Layer layer, Collection<? extends Config> configs) {
+        internalAddConfigs(toChildren(layer, configs));
+    }
+
+    /**
+     * Replace configs by name with a single update of the flattened state and a single onConfigUpdated event.
+     */
+    @Override
+    public synchronized void replaceConfigs(Layer layer, Collection<? extends Config> configs) {
+        List<LayerAndConfig> added = toChildren(layer, configs);
+        Set<String> names = added.stream().map(child -> child.config.getName()).collect(Collectors.toSet());
+        LOG.info("Replacing property sources {} at layer '{}'", names, layer);
+
+        List<Config> removed = state.findChildren(layer, names);
+        updateState(current -> current.replaceChildren(layer, names, added));
+        removed.forEach(child -> child.removeListener(new LayeredConfigListener(this, child)));
+        attachChildren(added);
+    }
+
+    private synchronized void internalAddConfigs(List<LayerAndConfig> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        added.forEach(child -> LOG.info("Adding property source '{}' at layer '{}'", child.config.getName(), child.layer));
+        updateState(current -> current.addChildren(added));
+        attachChildren(added);
+    }
+
+    private void attachChildren(List<LayerAndConfig> added) {
+        for (LayerAndConfig child : added) {
+            child.config.setStrInterpolator(getStrInterpolator());
+            child.config.setDecoder(getDecoder());
+        }
+        notifyConfigUpdated(this);
+        added.forEach(child -> child.config.addListener(new LayeredConfigListener(this, child.config)));
+    }
+
+    private static List<LayerAndConfig> toChildren(Layer layer, Collection<? extends Config> configs) {
+        List<LayerAndConfig> children = new ArrayList<>(configs.size());
+        for (Config config : configs) {
+            if (config != null) {
+                children.add(new LayerAndConfig(layer, config, insertionOrderCounter.incrementAndGet()));
+            }
+        }
+        return children;
     }
     
     @Override
     public Collection<Config> getConfigsAtLayer(Layer layer) {
-        return state.children.stream()
-                .filter(holder -> holder.layer.equals(layer))
-                .map(holder -> holder.config)
-                .collect(Collectors.toList());
+        return state.getConfigsAtLayer(layer);
     }
 
     @Override
@@ -111,7 +269,7 @@ public class DefaultLayeredConfig extends AbstractDependentConfig implements Lay
         LOG.info("Removing property source '{}' from layer '{}'", name, layer);
         Optional<Config> previous = state.findChild(layer, name);
         if (previous.isPresent()) {
-            this.state = state.removeChild(layer, name);
+            updateState(current -> current.removeChild(layer, name));
             this.notifyConfigUpdated(this);
         }
         return previous;
@@ -188,55 +346,319 @@ public class DefaultLayeredConfig extends AbstractDependentConfig implements Lay
         return o2.internalOrder - o1.internalOrder;
     };
 
+    /**
+     * Children sharing a layer order, from the highest to the lowest precedence.  Layers are grouped by order rather
+     * than by equality so that groups match ByPriorityAndInsertionOrder exactly.
+     */
+    private static final class LayerGroup {
+        private final Integer order;
+        private final LayerAndConfig[] children;
+        private final List<Config> configs;
+        /** The layer of all children in the group, or null when distinct layers share the order */
+        private final Layer layer;
+
+        private LayerGroup(List<LayerAndConfig> children) {
+            this.order = children.get(0).layer.getOrder();
+            this.children = children.toArray(new LayerAndConfig[0]);
+            List<Config> configs = new ArrayList<>(children.size());
+            Layer layer = children.get(0).layer;
+            for (LayerAndConfig child : children) {
+                configs.add(child.config);
+                if (!child.layer.equals(layer)) {
+                    layer = null;
+                }
+            }
+            this.configs = Collections.unmodifiableList(configs);
+            this.layer = layer;
+        }
+
+        private boolean contains(Config config) {
+            for (LayerAndConfig child : children) {
+                if (child.config == config) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<Config> getConfigs(Layer layer) {
+            if (layer.equals(this.layer)) {
+                return configs;
+            }
+            List<Config> configs = new ArrayList<>();
+            for (LayerAndConfig child : children) {
+                if (child.layer.equals(layer)) {
+                    configs.add(child.config);
+                }
+            }
+            return configs;
+        }
+
+        /** Split children already sorted by precedence into groups, from the highest to the lowest precedence */
+        private static LayerGroup[] of(List<LayerAndConfig> sortedChildren) {
+            List<LayerGroup> groups = new ArrayList<>();
+            int start = 0;
+            for (int i = 1; i <= sortedChildren.size(); i++) {
+                if (i == sortedChildren.size()
+                        || sortedChildren.get(i).layer.getOrder() != sortedChildren.get(start).layer.getOrder()) {
+                    groups.add(new LayerGroup(sortedChildren.subList(start, i)));
+                    start = i;
+                }
+            }
+            return groups.toArray(new LayerGroup[0]);
+        }
+    }
+
+    /**
+     * Builder for the flattened maps of a state, tracking for each key the order of the layer its value comes from.
+     */
+    private static final class Flattener {
+        private final PersistentHashMap.Builder<String, Object> data;
+        private final PersistentHashMap.Builder<String, Config> instrumentedKeys;
+        private final PersistentHashMap.Builder<String, Integer> winningLayers;
+        /** Keys won by each layer, by order, as of the state the flattener started from */
+        private final Map<Integer, PersistentHashMap<String, Boolean>> previousLayerKeys;
+        private final Map<Integer, PersistentHashMap.Builder<String, Boolean>> layerKeys = new HashMap<>();
+        /** Keys whose value changed from the state the flattener started from, if requested */
+        private final Collection<String> changedKeys;
+
+        private Flattener() {
+            this.data = PersistentHashMap.builder();
+            this.instrumentedKeys = PersistentHashMap.builder();
+            this.winningLayers = PersistentHashMap.builder();
+            this.previousLayerKeys = Collections.emptyMap();
+            this.changedKeys = null;
+        }
+
+        private Flattener(ImmutableCompositeState state) {
+            this(state, null);
+        }
+
+        private Flattener(ImmutableCompositeState state, Collection<String> changedKeys) {
+            this.data = state.data.toBuilder();
+            this.instrumentedKeys = state.instrumentedKeys.toBuilder();
+            this.winningLayers = state.winningLayers.toBuilder();
+            this.previousLayerKeys = state.layerKeys;
+            this.changedKeys = changedKeys;
+        }
+
+        private PersistentHashMap.Builder<String, Boolean> wonBy(Integer order) {
+            return layerKeys.computeIfAbsent(
+                    order, o -> previousLayerKeys.getOrDefault(o, PersistentHashMap.empty()).toBuilder());
+        }
+
+        private void put(String key, Object value, Config config, boolean instrumented, Integer order) {
+            if (changedKeys != null && (!data.containsKey(key) || !Objects.equals(value, data.get(key)))) {
+                changedKeys.add(key);
+            }
+            data.put(key, value);
+            Integer previousOrder = winningLayers.get(key);
+            winningLayers.put(key, order);
+            if (!order.equals(previousOrder)) {
+                if (previousOrder != null) {
+                    wonBy(previousOrder).remove(key);
+                }
+                wonBy(order).put(key, Boolean.TRUE);
+            }
+            if (instrumented) {
+                instrumentedKeys.put(key, config);
+            } else {
+                instrumentedKeys.remove(key);
+            }
+        }
+
+        /** Merge a child with lower precedence than everything already merged. */
+        private void mergeLowest(LayerAndConfig child) {
+            Config config = child.config;
+            Integer order = child.layer.getOrder();
+            boolean instrumented = config.instrumentationEnabled();
+            config.forEachPropertyUninstrumented((k, v) -> {
+                if (!data.containsKey(k)) {
+                    put(k, v, config, instrumented, order);
+                }
+            });
+        }
+
+        /** Merge a child with higher precedence than everything already merged. */
+        private void mergeHighest(LayerAndConfig child, Integer order) {
+            Config config = child.config;
+            boolean instrumented = config.instrumentationEnabled();
+            config.forEachPropertyUninstrumented((k, v) -> put(k, v, config, instrumented, order));
+        }
+
+        /** Merge all layers, from the lowest to the highest precedence so that the highest wins without a lookup. */
+        private void mergeAll(LayerGroup[] layers) {
+            for (int i = layers.length - 1; i >= 0; i--) {
+                LayerAndConfig[] children = layers[i].children;
+                for (int j = children.length - 1; j >= 0; j--) {
+                    mergeHighest(children[j], layers[i].order);
+                }
+            }
+        }
+
+        /** Look up the winning value of a key in the layers starting at the given index. */
+        private void resolve(String key, LayerGroup[] layers, int from) {
+            for (int i = from; i < layers.length; i++) {
+                for (LayerAndConfig child : layers[i].children) {
+                    Object value = child.config.getRawPropertyUninstrumented(key);
+                    // A key held with a null value wins, as it does when merging the whole child
+                    if (value != null || child.config.containsKey(key)) {
+                        put(key, value, child.config, child.config.instrumentationEnabled(), layers[i].order);
+                        return;
+                    }
+                }
+            }
+            Integer previousOrder = winningLayers.get(key);
+            if (previousOrder == null) {
+                return;
+            }
+            if (changedKeys != null) {
+                changedKeys.add(key);
+            }
+            data.remove(key);
+            instrumentedKeys.remove(key);
+            winningLayers.remove(key);
+            wonBy(previousOrder).remove(key);
+        }
+
+        private ImmutableCompositeState build(List<LayerAndConfig> children, LayerGroup[] layers) {
+            Map<Integer, PersistentHashMap<String, Boolean>> builtLayerKeys = new HashMap<>(previousLayerKeys);
+            layerKeys.forEach((order, keys) -> builtLayerKeys.put(order, keys.build()));
+            return new ImmutableCompositeState(children, layers, data.build(), instrumentedKeys.build(),
+                    winningLayers.build(), builtLayerKeys);
+        }
+    }
+
     /**
      * Immutable composite state of the DefaultLayeredConfig.  A new instance of this
      * will be created whenever a new Config is added or removed
      */
     private static final class ImmutableCompositeState {
+        /** All children, sorted by ByPriorityAndInsertionOrder */
         private final List<LayerAndConfig> children;
+        private final LayerGroup[] layers;
+        private final PersistentHashMap<String, Object> data;
+        private final PersistentHashMap<String, Config> instrumentedKeys;
+        /** Order of the layer each key's value comes from */
+        private final PersistentHashMap<String, Integer> winningLayers;
+        /** Keys won by each layer, by order, so that refreshing a layer doesn't scan the keys of the others */
+        private final Map<Integer, PersistentHashMap<String, Boolean>> layerKeys;
+        /** Resolves keys on demand in lazy mode, in which case the flattened maps are left empty */
+        private final LazyCompositeState lazyState;
         private final CachedState cachedState;
-        
-        ImmutableCompositeState(List<LayerAndConfig> entries) {
-            this.children = entries;
-            this.children.sort(ByPriorityAndInsertionOrder);
-            Map<String, Object> data = new HashMap<>();
-            Map<String, Config> instrumentedKeys = new HashMap<>();
-            for (LayerAndConfig child : children) {
-                boolean instrumented = child.config.instrumentationEnabled();
-                child.config.forEachPropertyUninstrumented(
-                        (k, v) -> updateData(data, instrumentedKeys, k, v, child.config, instrumented));
+
+        /** Flatten children already sorted by ByPriorityAndInsertionOrder, or resolve them lazily */
+        static ImmutableCompositeState of(List<LayerAndConfig> sortedChildren, boolean lazy) {
+            return of(sortedChildren, LayerGroup.of(sortedChildren), lazy);
+        }
+
+        private static ImmutableCompositeState of(
+                List<LayerAndConfig> sortedChildren, LayerGroup[] layers, boolean lazy) {
+            if (lazy) {
+                List<Config> configs = new ArrayList<>(sortedChildren.size());
+                sortedChildren.forEach(child -> configs.add(child.config));
+                return new ImmutableCompositeState(sortedChildren, layers, LazyCompositeState.of(configs));
             }
+            Flattener flattener = new Flattener();
+            flattener.mergeAll(layers);
+            return flattener.build(sortedChildren, layers);
+        }
+
+        private ImmutableCompositeState(List<LayerAndConfig> children,
+                                        LayerGroup[] layers,
+                                        PersistentHashMap<String, Object> data,
+                                        PersistentHashMap<String, Config> instrumentedKeys,
+                                        PersistentHashMap<String, Integer> winningLayers,
+                                        Map<Integer, PersistentHashMap<String, Boolean>> layerKeys) {
+            this.children = children;
+            this.layers = layers;
+            this.data = data;
+            this.instrumentedKeys = instrumentedKeys;
+            this.winningLayers = winningLayers;
+            this.layerKeys = layerKeys;
+            this.lazyState = null;
             this.cachedState = new CachedState(data, instrumentedKeys);
         }
 
-        private void updateData(
-                Map<String, Object> data,
-                Map<String, Config> instrumentedKeys,
-                String key,
-                Object value,
-                Config childConfig,
-                boolean instrumented) {
-            if (!data.containsKey(key)) {
-                if (instrumented) {
-                    instrumentedKeys.put(key, childConfig);
+        private ImmutableCompositeState(
+                List<LayerAndConfig> children, LayerGroup[] layers, LazyCompositeState lazyState) {
+            this.children = children;
+            this.layers = layers;
+            this.data = PersistentHashMap.empty();
+            this.instrumentedKeys = PersistentHashMap.empty();
+            this.winningLayers = PersistentHashMap.empty();
+            this.layerKeys = Collections.emptyMap();
+            this.lazyState = lazyState;
+            this.cachedState = lazyState.getCachedState();
+        }
+
+        private boolean isLazy() {
+            return lazyState != null;
+        }
+
+        /**
+         * Add children.  When the new children end up with the highest or lowest precedence only their own properties
+         * need to be merged into the existing data, which is otherwise shared with this state.  Children landing
+         * between existing children require a full flatten.
+         */
+        public ImmutableCompositeState addChildren(List<LayerAndConfig> added) {
+            List<LayerAndConfig> newChildren = new ArrayList<>(this.children.size() + added.size());
+            newChildren.addAll(this.children);
+            newChildren.addAll(added);
+            newChildren.sort(ByPriorityAndInsertionOrder);
+            LayerGroup[] newLayers = LayerGroup.of(newChildren);
+            if (isLazy()) {
+                return of(newChildren, newLayers, true);
+            }
+
+            int count = added.size();
+            Set<LayerAndConfig> addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            addedSet.addAll(added);
+            if (addedSet.containsAll(newChildren.subList(0, count))) {
+                Flattener flattener = new Flattener(this);
+                // Merge from the lowest to the highest precedence so that the highest wins
+                for (int i = count - 1; i >= 0; i--) {
+                    LayerAndConfig child = newChildren.get(i);
+                    flattener.mergeHighest(child, child.layer.getOrder());
                 }
-                data.put(key, value);
+                return flattener.build(newChildren, newLayers);
             }
+            if (addedSet.containsAll(newChildren.subList(newChildren.size() - count, newChildren.size()))) {
+                Flattener flattener = new Flattener(this);
+                for (int i = newChildren.size() - count; i < newChildren.size(); i++) {
+                    flattener.mergeLowest(newChildren.get(i));
+                }
+                return flattener.build(newChildren, newLayers);
+            }
+            return of(newChildren, newLayers, false);
         }
-        
-        public ImmutableCompositeState addChild(LayerAndConfig layerAndConfig) {
-            List<LayerAndConfig> newChildren = new ArrayList<>(this.children);
-            newChildren.add(layerAndConfig);
-            return new ImmutableCompositeState(newChildren);
+
+        /** Remove the children at the layer with any of the names and add new children, flattening only once. */
+        public ImmutableCompositeState replaceChildren(Layer layer, Set<String> names, List<LayerAndConfig> added) {
+            List<LayerAndConfig> newChildren = new ArrayList<>(this.children.size() + added.size());
+            this.children.stream()
+                .filter(source -> !(source.layer.equals(layer) && names.contains(source.config.getName())))
+                .forEach(newChildren::add);
+            newChildren.addAll(added);
+            newChildren.sort(ByPriorityAndInsertionOrder);
+            return of(newChildren, isLazy());
+        }
+
+        public List<Config> findChildren(Layer layer, Set<String> names) {
+            return children
+                    .stream()
+                    .filter(source -> source.layer.equals(layer) && names.contains(source.config.getName()))
+                    .map(LayerAndConfig::getConfig)
+                    .collect(Collectors.toList());
         }
 
         public ImmutableCompositeState removeChild(Layer layer, String name) {
+            // Removal keeps the remaining children sorted
             List<LayerAndConfig> newChildren = new ArrayList<>(this.children.size());
             this.children.stream()
-                .filter(source -> !(source.getLayer().equals(layer) && source.getConfig().getName() != null))
+                .filter(source -> !(source.getLayer().equals(layer) && name.equals(source.getConfig().getName())))
                 .forEach(newChildren::add);
-            newChildren.sort(ByPriorityAndInsertionOrder);
-            return new ImmutableCompositeState(newChildren);
+            return of(newChildren, isLazy());
         }
         
         public Optional<Config> findChild(Layer layer, String name) {
@@ -247,8 +669,70 @@ public class DefaultLayeredConfig extends AbstractDependentConfig implements Lay
                     .map(LayerAndConfig::getConfig);
         }
 
+        public Collection<Config> getConfigsAtLayer(Layer layer) {
+            for (LayerGroup group : layers) {
+                if (group.order == layer.getOrder()) {
+                    return group.getConfigs(layer);
+                }
+            }
+            return Collections.emptyList();
+        }
+
         ImmutableCompositeState refresh() {
-            return new ImmutableCompositeState(children);
+            return of(children, layers, isLazy());
+        }
+
+        private ImmutableCompositeState refreshAll(Collection<String> changedKeys) {
+            ImmutableCompositeState refreshed = refresh();
+            changedKeys.addAll(GenerationTracker.changedKeys(data, refreshed.data));
+            return refreshed;
+        }
+
+        /**
+         * Refresh after an update of a single child.  Only keys the child now holds and keys previously won by its
+         * layer are resolved again, starting at that layer, and keys won by a higher layer are skipped without a
+         * lookup since the child can't affect them.  Falls back to a full refresh when the config isn't a direct child
+         * or is a child in several layers.  In lazy mode only what was resolved from or below the child is forgotten,
+         * and the changed keys aren't known.
+         *
+         * @param changedKeys Receives the keys whose value changed
+         */
+        ImmutableCompositeState refresh(Config updated, Collection<String> changedKeys) {
+            if (isLazy()) {
+                return new ImmutableCompositeState(children, layers, lazyState.update(updated));
+            }
+            int index = -1;
+            for (int i = 0; i < layers.length; i++) {
+                if (layers[i].contains(updated)) {
+                    if (index != -1) {
+                        return refreshAll(changedKeys);
+                    }
+                    index = i;
+                }
+            }
+            if (index == -1) {
+                return refreshAll(changedKeys);
+            }
+
+            int order = layers[index].order;
+            Set<String> affected = new HashSet<>();
+            updated.forEachPropertyUninstrumented((key, value) -> {
+                Integer winner = winningLayers.get(key);
+                if (winner == null || winner >= order) {
+                    affected.add(key);
+                }
+            });
+            // Keys may also have been removed from the child
+            affected.addAll(layerKeys.getOrDefault(order, PersistentHashMap.empty()).keySet());
+            if (affected.isEmpty()) {
+                return this;
+            }
+
+            Flattener flattener = new Flattener(this, changedKeys);
+            for (String key : affected) {
+                flattener.resolve(key, layers, index);
+            }
+            return flattener.build(children, layers);
         }
     }
 
@@ -17,18 +17,18 @@ package com.netflix.archaius.config;
 
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.config.SettableConfig;
-import com.netflix.archaius.util.Maps;
+import com.netflix.archaius.util.PersistentHashMap;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.function.BiConsumer;
 
 public class DefaultSettableConfig extends AbstractConfig implements SettableConfig {
-    private volatile Map<String, Object> props = Collections.emptyMap();
+    private volatile PersistentHashMap<String, Object> props = PersistentHashMap.empty();
+    private final GenerationTracker generations = new GenerationTracker();
     
     public DefaultSettableConfig(String name) {
         super(name);
@@ -38,12 +38,17 @@ public class DefaultSettableConfig extends AbstractConfig implements SettableCon
         super(generateUniqueName("settable-"));
     }
 
+    /**
+     * @throws NullPointerException if the property name is null
+     */
     @Override
     public synchronized <T> void setProperty(String propName, T propValue) {
-        Map<String, Object> copy = Maps.newHashMap(props.size() + 1);
-        copy.putAll(props);
-        copy.put(propName, propValue);
-        props = Collections.unmodifiableMap(copy);
+        Objects.requireNonNull(propName, "Property name must not be null");
+        PersistentHashMap<String, Object> previous = props;
+        props = props.plus(propName, propValue);
+        if (!previous.containsKey(propName) || !Objects.equals(previous.get(propName), propValue)) {
+            generations.changed(Collections.singletonList(propName));
+        }
         notifyConfigUpdated(this);
     }
 
@@ -51,9 +56,11 @@ public class DefaultSettableConfig extends AbstractConfig implements SettableCon
     public void clearProperty(String propName) {
         if (props.containsKey(propName)) {
             synchronized (this) {
-                Map<String, Object> copy = new HashMap<>(props);
-                copy.remove(propName);
-                props = Collections.unmodifiableMap(copy);
+                PersistentHashMap<String, Object> previous = props;
+                props = props.minus(propName);
+                if (previous.containsKey(propName)) {
+                    generations.changed(Collections.singletonList(propName));
+                }
                 notifyConfigUpdated(this);
             }
         }
@@ -88,12 +95,11 @@ public class DefaultSettableConfig extends AbstractConfig implements SettableCon
     public void setProperties(Properties src) {
         if (null != src) {
             synchronized (this) {
-                Map<String, Object> copy = Maps.newHashMap(props.size() + src.size());
-                copy.putAll(props);
+                PersistentHashMap.Builder<String, Object> builder = props.toBuilder();
                 for (Entry<Object, Object> prop : src.entrySet()) {
-                    copy.put(prop.getKey().toString(), prop.getValue());
+                    builder.put(prop.getKey().toString(), prop.getValue());
                 }
-                props = Collections.unmodifiableMap(copy);
+                update(builder.build());
                 notifyConfigUpdated(this);
             }
         }
@@ -103,14 +109,30 @@ public class DefaultSettableConfig extends AbstractConfig implements SettableCon
     public void setProperties(Config src) {
         if (null != src) {
             synchronized (this) {
-                Map<String, Object> copy = new HashMap<>(props);
-                src.forEachProperty(copy::put);
-                props = Collections.unmodifiableMap(copy);
+                PersistentHashMap.Builder<String, Object> builder = props.toBuilder();
+                src.forEachProperty(builder::put);
+                update(builder.build());
                 notifyConfigUpdated(this);
             }
         }
     }
 
+    private void update(PersistentHashMap<String, Object> updated) {
+        PersistentHashMap<String, Object> previous = props;
+        props = updated;
+        generations.changed(previous, updated);
+    }
+
+    @Override
+    public long getGeneration() {
+        return generations.get();
+    }
+
+    @Override
+    public long getGeneration(String prefix) {
+        return generations.get(prefix);
+    }
+
     @Override
     public void forEachProperty(BiConsumer<String, Object> consumer) {
         props.forEach(consumer);
@@ -46,6 +46,11 @@ abstract class DependentConfigListener<T extends AbstractConfig> implements Conf
     public abstract void onSourceConfigUpdated(T dependentConfig, Config sourceConfig);
     public abstract void onSourceError(Throwable error, T dependentConfig, Config sourceConfig);
 
+    /** The dependent config, or null if it was collected. */
+    T getDependentConfig() {
+        return dependentConfigRef.get();
+    }
+
     /**
      * Checks that the dependent Config object is still alive, and if so it updates its local state from the wrapped
      * source.
@@ -0,0 +1,93 @@
+package com.netflix.archaius.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generation of a config's content, incremented whenever a key is added, removed or changes value.  The generation of
+ * a prefix is the generation at which a key starting with it last changed, and is only tracked for prefixes that have
+ * been queried, from the first query on.
+ * <p>
+ * Reads don't lock, while updates and the registration of a new prefix are serialized so that a prefix can't miss an
+ * update made while it is being registered.
+ */
+final class GenerationTracker {
+    private volatile long generation;
+    private final ConcurrentMap<String, Long> prefixGenerations = new ConcurrentHashMap<>();
+
+    long get() {
+        return generation;
+    }
+
+    long get(String prefix) {
+        if (prefix.isEmpty()) {
+            return generation;
+        }
+        Long current = prefixGenerations.get(prefix);
+        if (current == null) {
+            synchronized (this) {
+                current = prefixGenerations.computeIfAbsent(prefix, p -> generation);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Record an update that changed the given keys, if any
+     */
+    synchronized void changed(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        long next = generation + 1;
+        for (Map.Entry<String, Long> entry : prefixGenerations.entrySet()) {
+            for (String key : keys) {
+                if (key.startsWith(entry.getKey())) {
+                    entry.setValue(next);
+                    break;
+                }
+            }
+        }
+        generation = next;
+    }
+
+    /**
+     * Record an update whose changed keys aren't known, which changes the generation of every prefix
+     */
+    synchronized void changedAll() {
+        long next = generation + 1;
+        prefixGenerations.replaceAll((prefix, current) -> next);
+        generation = next;
+    }
+
+    /**
+     * Record an update from one content to another, if they differ
+     */
+    void changed(Map<String, ?> before, Map<String, ?> after) {
+        changed(changedKeys(before, after));
+    }
+
+    static List<String> changedKeys(Map<String, ?> before, Map<String, ?> after) {
+        List<String> changed = new ArrayList<>();
+        if (before == after) {
+            return changed;
+        }
+        after.forEach((key, value) -> {
+            Object previous = before.get(key);
+            if (!Objects.equals(value, previous) || previous == null && !before.containsKey(key)) {
+                changed.add(key);
+            }
+        });
+        before.forEach((key, value) -> {
+            if (!after.containsKey(key)) {
+                changed.add(key);
+            }
+        });
+        return changed;
+    }
+}
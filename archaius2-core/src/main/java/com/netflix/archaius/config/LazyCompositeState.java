@@ -0,0 +1,265 @@
+package com.netflix.archaius.config;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.util.CompactHashMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * State of a composite that resolves keys on demand instead of flattening all of its children up front, used by the
+ * lazy resolution mode of {@link DefaultCompositeConfig} and {@link DefaultLayeredConfig}.  A read walks the children
+ * in order of precedence and memoizes the result, including the absence of a value, so that building a state costs
+ * nothing and the work done is proportional to the keys actually read.  All children are only flattened when the
+ * state is iterated or sized, and that flattened copy is then kept for the lifetime of the state.
+ * <p>
+ * Reads go to the children as they are, so unlike a flattened state this one is not immutable and can't be pinned by
+ * a snapshot.  After an update of a child a new state is derived with {@link #update(Config)}, which keeps only the
+ * results resolved from children with a higher precedence than the one that changed.
+ * <p>
+ * Since the keys changed by an update of a child aren't known, a composite in this mode propagates every update of a
+ * child to its listeners and changes its generation, even when the update is hidden by another child.
+ */
+final class LazyCompositeState {
+    /** Resolution of a key that no child holds, which any update may invalidate */
+    private static final Resolution MISSING = new Resolution(null, Integer.MAX_VALUE);
+
+    private static final class Resolution {
+        private final Object value;
+        /** Index of the child the value was read from */
+        private final int index;
+
+        private Resolution(Object value, int index) {
+            this.value = value;
+            this.index = index;
+        }
+    }
+
+    /** Children from the highest to the lowest precedence */
+    private final Config[] children;
+    private final boolean[] instrumented;
+    private final boolean anyInstrumented;
+    private final ConcurrentMap<String, Resolution> resolved;
+    private final CachedState cachedState;
+    private volatile Map<String, Object> flattened;
+
+    /** Create a state over children given from the highest to the lowest precedence. */
+    static LazyCompositeState of(Collection<Config> children) {
+        return new LazyCompositeState(children.toArray(new Config[0]), new ConcurrentHashMap<>());
+    }
+
+    /** Whether the state resolves keys from its children on demand, rather than being immutable. */
+    static boolean isLazy(CachedState state) {
+        return state.getData() instanceof LazyData;
+    }
+
+    private LazyCompositeState(Config[] children, ConcurrentMap<String, Resolution> resolved) {
+        this.children = children;
+        this.instrumented = new boolean[children.length];
+        boolean anyInstrumented = false;
+        for (int i = 0; i < children.length; i++) {
+            instrumented[i] = children[i].instrumentationEnabled();
+            anyInstrumented |= instrumented[i];
+        }
+        this.anyInstrumented = anyInstrumented;
+        this.resolved = resolved;
+        this.cachedState = new CachedState(new LazyData(), new LazyInstrumentedKeys());
+    }
+
+    CachedState getCachedState() {
+        return cachedState;
+    }
+
+    /**
+     * Derive the state after an update of a child.  Results resolved from children with a higher precedence are kept
+     * since the update can't affect them, while results resolved from the child itself, from children below it, or
+     * found missing are dropped.  Nothing is kept when the config isn't a direct child or is a child more than once.
+     */
+    LazyCompositeState update(Config updated) {
+        int index = -1;
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] == updated) {
+                if (index != -1) {
+                    return new LazyCompositeState(children, new ConcurrentHashMap<>());
+                }
+                index = i;
+            }
+        }
+        ConcurrentMap<String, Resolution> kept = new ConcurrentHashMap<>();
+        if (index != -1) {
+            int limit = index;
+            resolved.forEach((key, resolution) -> {
+                if (resolution.index < limit) {
+                    kept.put(key, resolution);
+                }
+            });
+        }
+        return new LazyCompositeState(children, kept);
+    }
+
+    private Resolution resolve(Object key) {
+        if (!(key instanceof String)) {
+            return MISSING;
+        }
+        Resolution resolution = resolved.get(key);
+        if (resolution == null) {
+            resolution = lookup((String) key);
+            // Concurrent readers of the same key may both look it up, keep whichever was stored first
+            Resolution existing = resolved.putIfAbsent((String) key, resolution);
+            if (existing != null) {
+                resolution = existing;
+            }
+        }
+        return resolution;
+    }
+
+    private Resolution lookup(String key) {
+        for (int i = 0; i < children.length; i++) {
+            Object value = children[i].getRawPropertyUninstrumented(key);
+            if (value != null) {
+                return new Resolution(value, i);
+            }
+        }
+        return MISSING;
+    }
+
+    private Map<String, Object> flattened() {
+        Map<String, Object> current = flattened;
+        if (current == null) {
+            // Benign race; concurrent callers may each flatten the children
+            Map<String, Object> data = new HashMap<>();
+            for (Config child : children) {
+                child.forEachPropertyUninstrumented(data::putIfAbsent);
+            }
+            current = CompactHashMap.copyOf(data);
+            flattened = current;
+        }
+        return current;
+    }
+
+    /** Values of the composite, resolved on demand for point reads and flattened for everything else. */
+    private final class LazyData extends AbstractMap<String, Object> implements CachedState.ReadOnlyView {
+        @Override
+        public Object get(Object key) {
+            return resolve(key).value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return resolve(key) != MISSING;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (Config child : children) {
+                if (!child.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return flattened().size();
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            flattened().forEach(action);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return flattened().keySet();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return flattened().entrySet();
+        }
+    }
+
+    /** Maps each key to the child its value is resolved from, if that child is instrumented. */
+    private final class LazyInstrumentedKeys extends AbstractMap<String, Config> implements CachedState.ReadOnlyView {
+        @Override
+        public Config get(Object key) {
+            if (!anyInstrumented) {
+                return null;
+            }
+            Resolution resolution = resolve(key);
+            return resolution != MISSING && instrumented[resolution.index] ? children[resolution.index] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        /** Whether any child is instrumented, without flattening to check that one of them holds a winning value. */
+        @Override
+        public boolean isEmpty() {
+            return !anyInstrumented;
+        }
+
+        @Override
+        public Set<Entry<String, Config>> entrySet() {
+            return new AbstractSet<Entry<String, Config>>() {
+                @Override
+                public Iterator<Entry<String, Config>> iterator() {
+                    Iterator<String> keys = anyInstrumented
+                            ? flattened().keySet().iterator()
+                            : Collections.<String>emptyIterator();
+                    return new Iterator<Entry<String, Config>>() {
+                        private Entry<String, Config> next = advance();
+
+                        private Entry<String, Config> advance() {
+                            while (keys.hasNext()) {
+                                String key = keys.next();
+                                Config child = get(key);
+                                if (child != null) {
+                                    return new SimpleImmutableEntry<>(key, child);
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, Config> next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Config> current = next;
+                            next = advance();
+                            return current;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Iterator<Entry<String, Config>> iter = iterator(); iter.hasNext(); iter.next()) {
+                        size++;
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+}
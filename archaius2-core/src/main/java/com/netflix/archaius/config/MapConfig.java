@@ -15,7 +15,8 @@
  */
 package com.netflix.archaius.config;
 
-import java.util.Collections;
+import com.netflix.archaius.util.CompactHashMap;
+
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -85,7 +86,7 @@ public class MapConfig extends AbstractConfig {
     
     public MapConfig(String name, Map<String, String> props) {
         super(name);
-        this.props = Collections.unmodifiableMap(new HashMap<>(props));
+        this.props = CompactHashMap.copyOf(props);
     }
 
     /**
@@ -95,7 +96,7 @@ public class MapConfig extends AbstractConfig {
      */
     public MapConfig(Map<String, String> props) {
         super(generateUniqueName("immutable-"));
-        this.props = Collections.unmodifiableMap(new HashMap<>(props));
+        this.props = CompactHashMap.copyOf(props);
     }
 
     /**
@@ -108,7 +109,7 @@ public class MapConfig extends AbstractConfig {
         for (Entry<Object, Object> entry : props.entrySet()) {
             properties.put(entry.getKey().toString(), entry.getValue().toString());
         }
-        this.props = Collections.unmodifiableMap(properties);
+        this.props = CompactHashMap.copyOf(properties);
     }
     
     @Override
@@ -30,6 +30,7 @@ import com.netflix.archaius.api.config.PollingStrategy;
 import com.netflix.archaius.api.PropertyDetails;
 import com.netflix.archaius.config.polling.PollingResponse;
 import com.netflix.archaius.instrumentation.AccessMonitorUtil;
+import com.netflix.archaius.util.CompactHashMap;
 
 /**
  * Special DynamicConfig that reads an entire snapshot of the configuration
@@ -45,6 +46,7 @@ public class PollingDynamicConfig extends AbstractConfig {
     private final Callable<PollingResponse> reader;
     private final AtomicLong updateCounter = new AtomicLong();
     private final AtomicLong errorCounter = new AtomicLong();
+    private final GenerationTracker generations = new GenerationTracker();
     private final PollingStrategy strategy;
     // Holds the AccessMonitorUtil and whether instrumentation is enabled. This is encapsulated to avoid
     // race conditions while also allowing for on-the-fly enabling and disabling of instrumentation.
@@ -102,8 +104,11 @@ public class PollingDynamicConfig extends AbstractConfig {
             try {
                 PollingResponse response = reader.call();
                 if (response.hasData()) {
-                    current = Collections.unmodifiableMap(response.getToAdd());
-                    currentIds = Collections.unmodifiableMap(response.getNameToIdsMap());
+                    Map<String, String> previous = current;
+                    // Snapshots are retained until the next poll, store them compactly
+                    current = CompactHashMap.copyOf(response.getToAdd());
+                    currentIds = CompactHashMap.copyOf(response.getNameToIdsMap());
+                    generations.changed(previous, current);
                     notifyConfigUpdated(this);
                 }
             }
@@ -133,6 +138,16 @@ public class PollingDynamicConfig extends AbstractConfig {
         return updateCounter.get();
     }
     
+    @Override
+    public long getGeneration() {
+        return generations.get();
+    }
+
+    @Override
+    public long getGeneration(String prefix) {
+        return generations.get(prefix);
+    }
+
     public long getErrorCounter() {
         return errorCounter.get();
     }
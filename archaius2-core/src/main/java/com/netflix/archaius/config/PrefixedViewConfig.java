@@ -15,8 +15,6 @@
  */
 package com.netflix.archaius.config;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import com.netflix.archaius.api.Config;
@@ -31,12 +29,14 @@ import com.netflix.archaius.interpolate.ConfigStrLookup;
  * View into another Config for properties starting with a specified prefix.
  *
  * This class is meant to work with dynamic Config object that may have properties
- * added and removed.
+ * added and removed.  The view does not copy the parent's data; it reads through to
+ * the parent's current state, stripping the prefix from keys on the fly.
  */
 public class PrefixedViewConfig extends AbstractDependentConfig {
     private final Config config;
     private final String prefix;
     private final Lookup nonPrefixedLookup;
+    private final Object stateLock = new Object();
     private volatile CachedState state;
 
     /** Listener to update the state of the PrefixedViewConfig on any changes in the source config. */
@@ -47,17 +47,17 @@ public class PrefixedViewConfig extends AbstractDependentConfig {
 
         @Override
         public void onSourceConfigAdded(PrefixedViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
         }
 
         @Override
         public void onSourceConfigRemoved(PrefixedViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
         }
 
         @Override
         public void onSourceConfigUpdated(PrefixedViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
         }
 
         @Override
@@ -69,28 +69,19 @@ public class PrefixedViewConfig extends AbstractDependentConfig {
         this.config = config;
         this.prefix = prefix.endsWith(".") ? prefix : prefix + ".";
         this.nonPrefixedLookup = ConfigStrLookup.from(config);
-        this.state = createState(config);
+        this.state = ViewStates.prefixed(config, this.prefix);
         this.config.addListener(new PrefixedViewConfigListener(this));
     }
 
-    private void updateState(Config config) {
-        this.state = createState(config);
-    }
-
-    private CachedState createState(Config config) {
-        Map<String, Object> data = new LinkedHashMap<>();
-        Map<String, Config> instrumentedKeys = new LinkedHashMap<>();
-        boolean instrumented = config.instrumentationEnabled();
-        config.forEachPropertyUninstrumented((k, v) -> {
-            if (k.startsWith(prefix)) {
-                String key = k.substring(prefix.length());
-                data.put(key, v);
-                if (instrumented) {
-                    instrumentedKeys.put(key, config);
-                }
-            }
-        });
-        return new CachedState(data, instrumentedKeys);
+    private void updateState() {
+        CachedState previous;
+        CachedState next;
+        synchronized (stateLock) {
+            previous = state;
+            next = ViewStates.prefixed(config, prefix);
+            state = next;
+        }
+        stateChanged(previous, next, null);
     }
 
     @Override
@@ -15,8 +15,6 @@
  */
 package com.netflix.archaius.config;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import com.netflix.archaius.api.Config;
@@ -28,7 +26,8 @@ import com.netflix.archaius.api.StrInterpolator;
  * View into another Config that allows usage of a private {@link Decoder}, {@link StrInterpolator}, and
  * {@link ConfigListener}s that will NOT be shared with the original config.
  * <p>
- * This class is meant to work with dynamic Config object that may have properties added and removed.
+ * This class is meant to work with dynamic Config object that may have properties added and removed. The view shares
+ * the wrapped config's current state rather than copying it.
  */
 public class PrivateViewConfig extends AbstractDependentConfig {
 
@@ -40,19 +39,19 @@ public class PrivateViewConfig extends AbstractDependentConfig {
 
         @Override
         public void onSourceConfigAdded(PrivateViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
             pvc.notifyConfigAdded(pvc);
         }
 
         @Override
         public void onSourceConfigRemoved(PrivateViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
             pvc.notifyConfigRemoved(pvc);
         }
 
         @Override
         public void onSourceConfigUpdated(PrivateViewConfig pvc, Config config) {
-            pvc.updateState(config);
+            pvc.updateState();
             pvc.notifyConfigUpdated(pvc);
         }
 
@@ -61,23 +60,19 @@ public class PrivateViewConfig extends AbstractDependentConfig {
         }
     }
 
+    private final Config wrappedConfig;
+    private final Object stateLock = new Object();
     private volatile CachedState state;
 
-    private void updateState(Config config) {
-        this.state = createState(config);
-    }
-
-    private CachedState createState(Config config) {
-        Map<String, Object> data = new LinkedHashMap<>();
-        Map<String, Config> instrumentedKeys = new LinkedHashMap<>();
-        boolean instrumented = config.instrumentationEnabled();
-        config.forEachPropertyUninstrumented((k, v) -> {
-            data.put(k, v);
-            if (instrumented) {
-                instrumentedKeys.put(k, config);
-            }
-        });
-        return new CachedState(data, instrumentedKeys);
+    private void updateState() {
+        CachedState previous;
+        CachedState next;
+        synchronized (stateLock) {
+            previous = state;
+            next = ViewStates.of(wrappedConfig);
+            state = next;
+        }
+        stateChanged(previous, next, null);
     }
 
     @Override
@@ -86,7 +81,8 @@ public class PrivateViewConfig extends AbstractDependentConfig {
     }
 
     public PrivateViewConfig(final Config wrappedConfig) {
-        this.state = createState(wrappedConfig);
+        this.wrappedConfig = wrappedConfig;
+        this.state = ViewStates.of(wrappedConfig);
         wrappedConfig.addListener(new ViewConfigListener(this));
     }
 
@@ -0,0 +1,67 @@
+package com.netflix.archaius.config;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.api.ConfigSnapshot;
+import com.netflix.archaius.api.PropertyDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link ConfigSnapshot} pinned to a single immutable {@link CachedState}.  Taking a snapshot of a dependent config
+ * only allocates this object, and every read, including lookups made while interpolating, goes to the same state.
+ * Usage of instrumented properties is still recorded against the config they came from.
+ */
+final class StateSnapshot extends AbstractDependentConfig implements ConfigSnapshot {
+    private final CachedState state;
+    private final long generation;
+    private final AbstractDependentConfig source;
+
+    StateSnapshot(Config source, CachedState state, long generation) {
+        super(source.getName());
+        this.state = state;
+        this.generation = generation;
+        this.source = source instanceof AbstractDependentConfig ? (AbstractDependentConfig) source : null;
+        setDecoder(source.getDecoder());
+        setStrInterpolator(source.getStrInterpolator());
+    }
+
+    @Override
+    CachedState getState() {
+        return state;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public long getGeneration(String prefix) {
+        return generation;
+    }
+
+    @Override
+    public ConfigSnapshot snapshot() {
+        return this;
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            String value = getString(key, null);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    @Override
+    protected PropertyDetails createPropertyDetails(String key, Object value) {
+        return source != null ? source.createPropertyDetails(key, value) : super.createPropertyDetails(key, value);
+    }
+}
@@ -0,0 +1,289 @@
+package com.netflix.archaius.config;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.util.CompactHashMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Factory of {@link CachedState}s for view configs that read through to their parent instead of copying its data.
+ * <p>
+ * When the parent is a dependent config with an immutable {@link CachedState} the view is pinned to that state, so
+ * reads and iteration are consistent with each other and translating prefixed keys is the only cost. For any other
+ * parent, including lazily resolved composites, point reads go straight to the parent until the view is first iterated
+ * or sized, which materializes a snapshot of the view's entries that serves all reads from then on.
+ */
+final class ViewStates {
+    private ViewStates() {}
+
+    /** State for an unprefixed view over the parent's current state. */
+    static CachedState of(Config parent) {
+        CachedState state = immutableStateOf(parent);
+        if (state != null) {
+            // The parent's state is already immutable, share it as is
+            return state;
+        }
+        return create(new ReadThroughMap(parent, ""), parent);
+    }
+
+    /** State for a view over the entries of the parent's current state that start with the given prefix. */
+    static CachedState prefixed(Config parent, String prefix) {
+        CachedState state = immutableStateOf(parent);
+        if (state != null) {
+            return create(new PrefixedStateMap(state, prefix), parent);
+        }
+        return create(new ReadThroughMap(parent, prefix), parent);
+    }
+
+    /** The parent's current state if it is immutable, or null if the view has to read through to the parent. */
+    private static CachedState immutableStateOf(Config parent) {
+        if (parent instanceof AbstractDependentConfig) {
+            CachedState state = ((AbstractDependentConfig) parent).getState();
+            return LazyCompositeState.isLazy(state) ? null : state;
+        }
+        return null;
+    }
+
+    /** State holding a copy of the parent's current entries, for configs without an immutable state to pin. */
+    static CachedState copyOf(Config parent) {
+        Map<String, Object> data = new HashMap<>();
+        parent.forEachPropertyUninstrumented(data::put);
+        return create(CompactHashMap.copyOf(data), parent);
+    }
+
+    /** Whether the state reads through to a parent that may change, rather than being immutable. */
+    static boolean readsThrough(CachedState state) {
+        return state.getData() instanceof ReadThroughMap;
+    }
+
+    /**
+     * Generation of a prefix of a read through state, which is that of the parent since every read goes to it.
+     */
+    static long parentGeneration(CachedState state, String prefix) {
+        ReadThroughMap data = (ReadThroughMap) state.getData();
+        String parentPrefix = data.prefix + prefix;
+        return parentPrefix.isEmpty() ? data.parent.getGeneration() : data.parent.getGeneration(parentPrefix);
+    }
+
+    private static CachedState create(Map<String, Object> data, Config parent) {
+        Map<String, Config> instrumentedKeys = parent.instrumentationEnabled()
+                ? new InstrumentedKeysMap(data, parent)
+                : Collections.emptyMap();
+        return new CachedState(data, instrumentedKeys);
+    }
+
+    /**
+     * Read only view of the entries of an immutable parent state with the prefix stripped from the keys. The keys
+     * within the prefix are only looked up the first time the view is iterated or sized, so that creating a view for
+     * every update of the parent costs nothing when the view only serves point reads.
+     */
+    private static final class PrefixedStateMap extends AbstractMap<String, Object>
+            implements CachedState.ReadOnlyView {
+        private final CachedState state;
+        private final Map<String, Object> source;
+        private final String prefix;
+        private volatile List<String> sourceKeys;
+
+        PrefixedStateMap(CachedState source, String prefix) {
+            this.state = source;
+            this.source = source.getData();
+            this.prefix = prefix;
+        }
+
+        private List<String> sourceKeys() {
+            List<String> keys = sourceKeys;
+            if (keys == null) {
+                // Benign race; the range lookup is idempotent
+                keys = state.getKeysWithPrefix(prefix);
+                sourceKeys = keys;
+            }
+            return keys;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String ? source.get(prefix + key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && source.containsKey(prefix + key);
+        }
+
+        @Override
+        public int size() {
+            return sourceKeys().size();
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            for (String sourceKey : sourceKeys()) {
+                action.accept(sourceKey.substring(prefix.length()), source.get(sourceKey));
+            }
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<String> iter = sourceKeys().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iter.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            String sourceKey = iter.next();
+                            return new SimpleImmutableEntry<>(
+                                    sourceKey.substring(prefix.length()), source.get(sourceKey));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return sourceKeys().size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Read only view of the entries of an arbitrary config that start with a prefix (possibly empty), with the prefix
+     * stripped from the keys. Lookups are delegated to the config until the view is first iterated or sized, which
+     * takes a snapshot. From then on lookups are served from the snapshot as well, so that they are consistent with
+     * the keys and values iterated.
+     */
+    private static final class ReadThroughMap extends AbstractMap<String, Object>
+            implements CachedState.ReadOnlyView {
+        private final Config parent;
+        private final String prefix;
+        private volatile Map<String, Object> snapshot;
+
+        ReadThroughMap(Config parent, String prefix) {
+            this.parent = parent;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Map<String, Object> current = snapshot;
+            if (current != null) {
+                return current.get(key);
+            }
+            return key instanceof String ? parent.getRawPropertyUninstrumented(prefix + key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Map<String, Object> current = snapshot;
+            if (current != null) {
+                return current.containsKey(key);
+            }
+            return key instanceof String && parent.containsKey(prefix + key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            if (snapshot == null && prefix.isEmpty()) {
+                return parent.isEmpty();
+            }
+            return getSnapshot().isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return getSnapshot().size();
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super Object> action) {
+            getSnapshot().forEach(action);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return getSnapshot().entrySet();
+        }
+
+        private Map<String, Object> getSnapshot() {
+            Map<String, Object> current = snapshot;
+            if (current == null) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                parent.forEachPropertyUninstrumented((k, v) -> {
+                    if (k.startsWith(prefix)) {
+                        data.put(k.substring(prefix.length()), v);
+                    }
+                });
+                current = Collections.unmodifiableMap(data);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /** Maps every key of a view to the instrumented parent config it was read from. */
+    private static final class InstrumentedKeysMap extends AbstractMap<String, Config>
+            implements CachedState.ReadOnlyView {
+        private final Map<String, Object> data;
+        private final Config parent;
+
+        InstrumentedKeysMap(Map<String, Object> data, Config parent) {
+            this.data = data;
+            this.parent = parent;
+        }
+
+        @Override
+        public Config get(Object key) {
+            return data.containsKey(key) ? parent : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return data.containsKey(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return data.isEmpty();
+        }
+
+        @Override
+        public Set<Entry<String, Config>> entrySet() {
+            return new AbstractSet<Entry<String, Config>>() {
+                @Override
+                public Iterator<Entry<String, Config>> iterator() {
+                    Iterator<String> iter = data.keySet().iterator();
+                    return new Iterator<Entry<String, Config>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iter.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Config> next() {
+                            return new SimpleImmutableEntry<>(iter.next(), parent);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return data.size();
+                }
+            };
+        }
+    }
+}
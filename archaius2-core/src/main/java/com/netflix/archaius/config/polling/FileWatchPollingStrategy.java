@@ -0,0 +1,262 @@
+package com.netflix.archaius.config.polling;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.archaius.api.config.PollingStrategy;
+import com.netflix.archaius.util.FileStamp;
+import com.netflix.archaius.util.Futures;
+import com.netflix.archaius.util.ThreadFactories;
+
+/**
+ * Polling strategy for local files that runs the callback only when one of the files changes, instead of at a fixed
+ * interval.
+ * <p>
+ * The directories containing the files are watched with a {@link WatchService}.  Watching the directory rather than
+ * the file means that files replaced through an atomic rename, or through a symbolic link swap as done for mounted
+ * Kubernetes ConfigMaps, are picked up.  Any event in a watched directory schedules a check after a debounce delay,
+ * postponed by every further event, so that a burst of writes results in a single reload.  The check compares the
+ * size, modification time and identity of each file with those seen by the last successful callback and runs the
+ * callback only if one of them differs.
+ * <p>
+ * The same check also runs at a fixed, long interval as a fallback for file systems where watching is unsupported or
+ * may miss events, and to retry after a failed callback.
+ */
+public class FileWatchPollingStrategy implements PollingStrategy {
+    private static final Logger LOG = LoggerFactory.getLogger(FileWatchPollingStrategy.class);
+
+    public static class Builder {
+        private final Set<Path> files = new LinkedHashSet<>();
+        private long debounceMillis = 100;
+        private long statIntervalMillis = TimeUnit.SECONDS.toMillis(10);
+        private boolean watchEnabled = true;
+
+        public Builder withFile(Path file) {
+            this.files.add(file.toAbsolutePath());
+            return this;
+        }
+
+        public Builder withFiles(Collection<Path> files) {
+            files.forEach(this::withFile);
+            return this;
+        }
+
+        /**
+         * Delay between the last event in a watched directory and the check for changes.  Defaults to 100ms.
+         */
+        public Builder withDebounce(long delay, TimeUnit units) {
+            this.debounceMillis = units.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Interval of the fallback check for changes.  Defaults to 10 seconds.
+         */
+        public Builder withStatInterval(long interval, TimeUnit units) {
+            this.statIntervalMillis = units.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * Disable the WatchService and rely on the periodic check only.  Watching is enabled by default.
+         */
+        public Builder withWatchService(boolean enabled) {
+            this.watchEnabled = enabled;
+            return this;
+        }
+
+        public FileWatchPollingStrategy build() {
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("At least one file must be provided");
+            }
+            return new FileWatchPollingStrategy(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final List<Path> files;
+    private final long debounceMillis;
+    private final long statIntervalMillis;
+    private final boolean watchEnabled;
+    private final ScheduledExecutorService executor;
+
+    private volatile Runnable callback;
+    private volatile WatchService watchService;
+    private ScheduledFuture<?> pendingCheck;
+
+    /** Stamps of the files as of the last successful callback.  Only accessed from the executor thread. */
+    private Map<Path, FileStamp> lastStamps = Collections.emptyMap();
+
+    public FileWatchPollingStrategy(Path... files) {
+        this(builder().withFiles(Arrays.asList(files)));
+    }
+
+    private FileWatchPollingStrategy(Builder builder) {
+        this.files = Collections.unmodifiableList(new ArrayList<>(builder.files));
+        this.debounceMillis = builder.debounceMillis;
+        this.statIntervalMillis = builder.statIntervalMillis;
+        this.watchEnabled = builder.watchEnabled;
+        this.executor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.newNamedDaemonThreadFactory("Archaius-Poller-%d"));
+    }
+
+    @Override
+    public Future<?> execute(final Runnable callback) {
+        this.callback = callback;
+
+        // Initial load is synchronous and retried until it succeeds, as with FixedPollingStrategy
+        while (true) {
+            Map<Path, FileStamp> stamps = stampFiles();
+            try {
+                callback.run();
+                lastStamps = stamps;
+                break;
+            }
+            catch (Exception e) {
+                try {
+                    LOG.warn("Fail to poll the polling source", e);
+                    TimeUnit.MILLISECONDS.sleep(statIntervalMillis);
+                }
+                catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                    return Futures.immediateFailure(e);
+                }
+            }
+        }
+
+        if (watchEnabled) {
+            startWatching();
+        }
+        return executor.scheduleWithFixedDelay(this::checkForChanges, statIntervalMillis, statIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void startWatching() {
+        Map<WatchKey, Path> keys = new IdentityHashMap<>();
+        try {
+            FileSystem fileSystem = files.get(0).getFileSystem();
+            watchService = fileSystem.newWatchService();
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Path file : files) {
+                directories.add(file.getParent());
+            }
+            for (Path directory : directories) {
+                try {
+                    keys.put(directory.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE), directory);
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Unable to watch {}. Changes will be detected every {} ms", directory, statIntervalMillis, e);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("WatchService not available. Changes will be detected every {} ms", statIntervalMillis, e);
+            return;
+        }
+
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Thread watcher = ThreadFactories.newNamedDaemonThreadFactory("Archaius-FileWatcher-%d").newThread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    // Events are not inspected since any of them may be a rename or link swap affecting a file
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        LOG.warn("Directory {} is no longer watched", keys.get(key));
+                    }
+                    scheduleCheck();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // Shut down
+            }
+        });
+        watcher.start();
+    }
+
+    private synchronized void scheduleCheck() {
+        if (pendingCheck != null) {
+            pendingCheck.cancel(false);
+        }
+        try {
+            pendingCheck = executor.schedule(this::checkForChanges, debounceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down
+        }
+    }
+
+    private void checkForChanges() {
+        Map<Path, FileStamp> stamps = stampFiles();
+        if (stamps.equals(lastStamps)) {
+            return;
+        }
+
+        LOG.debug("Detected change to {}", files);
+        try {
+            callback.run();
+            lastStamps = stamps;
+        } catch (Exception e) {
+            LOG.warn("Failed to load properties", e);
+        }
+    }
+
+    /**
+     * @return stamps of all files, with a null stamp for files that do not exist or cannot be read
+     */
+    private Map<Path, FileStamp> stampFiles() {
+        Map<Path, FileStamp> stamps = new HashMap<>();
+        for (Path file : files) {
+            FileStamp stamp;
+            try {
+                stamp = FileStamp.of(file);
+            } catch (IOException e) {
+                stamp = null;
+            }
+            stamps.put(file, stamp);
+        }
+        return stamps;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close WatchService", e);
+            }
+        }
+    }
+}
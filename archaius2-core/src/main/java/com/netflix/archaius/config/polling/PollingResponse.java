@@ -1,8 +1,11 @@
 package com.netflix.archaius.config.polling;
 
+import com.netflix.archaius.util.StringInterner;
+
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public abstract class PollingResponse {
 
@@ -69,6 +72,44 @@ public abstract class PollingResponse {
         };
     }
     
+    /**
+     * Wrap a reader so that the names, values and ids of the properties in its responses are interned with
+     * {@link StringInterner}.  Successive polls usually return mostly the same strings, so this keeps a single copy of
+     * them alive instead of one per poll.
+     */
+    public static Callable<PollingResponse> deduplicating(Callable<PollingResponse> reader) {
+        return () -> {
+            PollingResponse response = reader.call();
+            if (!response.hasData()) {
+                return response;
+            }
+            Map<String, String> values = StringInterner.internAll(response.getToAdd());
+            Map<String, String> ids = StringInterner.internAll(response.getNameToIdsMap());
+            Collection<String> toRemove = response.getToRemove();
+            return new PollingResponse() {
+                @Override
+                public Map<String, String> getToAdd() {
+                    return values;
+                }
+
+                @Override
+                public Collection<String> getToRemove() {
+                    return toRemove;
+                }
+
+                @Override
+                public boolean hasData() {
+                    return true;
+                }
+
+                @Override
+                public Map<String, String> getNameToIdsMap() {
+                    return ids;
+                }
+            };
+        };
+    }
+
     public abstract Map<String, String> getToAdd();
     public abstract Collection<String> getToRemove();
     public abstract boolean hasData();
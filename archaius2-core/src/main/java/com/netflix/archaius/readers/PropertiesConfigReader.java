@@ -23,6 +23,8 @@ import com.netflix.archaius.api.exceptions.ConfigException;
 import com.netflix.archaius.config.DefaultCompositeConfig;
 import com.netflix.archaius.config.DefaultCompositeConfig.Builder;
 import com.netflix.archaius.config.MapConfig;
+import com.netflix.archaius.util.Futures;
+import com.netflix.archaius.util.StringInterner;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,32 +33,67 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 public class PropertiesConfigReader implements ConfigReader {
     private static final Logger LOG = LoggerFactory.getLogger(PropertiesConfigReader.class);
     
     private static final String[] INCLUDE_KEYS = { "@next", "netflixconfiguration.properties.nextLoad" };
     private static final String SUFFIX = ".properties";
+
+    private final Executor executor;
+    private final boolean deduplicateStrings;
+
+    public PropertiesConfigReader() {
+        this(null);
+    }
+
+    /**
+     * @param executor Executor on which multiple resources found for the same name are loaded concurrently.  May be
+     *                 null to load them all on the calling thread.
+     */
+    public PropertiesConfigReader(Executor executor) {
+        this(executor, false);
+    }
+
+    /**
+     * @param executor Executor on which multiple resources found for the same name are loaded concurrently.  May be
+     *                 null to load them all on the calling thread.
+     * @param deduplicateStrings Whether to intern the names and values of loaded properties with
+     *                           {@link StringInterner}
+     */
+    public PropertiesConfigReader(Executor executor, boolean deduplicateStrings) {
+        this.executor = executor;
+        this.deduplicateStrings = deduplicateStrings;
+    }
     
     @Override
     public Config load(ClassLoader loader, String resourceName, StrInterpolator strInterpolator, StrInterpolator.Lookup lookup) throws ConfigException {
         Builder builder = DefaultCompositeConfig.builder();
-        Collection<URL> resources = getResources(loader, resourceName);
+        List<URL> resources = new ArrayList<>(getResources(loader, resourceName));
         if (resources.size() > 1) {
             LOG.warn("Multiple resource files found for {}. {}." + 
                      "  All resources will be loaded with override order undefined.",
                      resourceName, resources);
         }
-        
+
+        List<Callable<Config>> tasks = new ArrayList<>(resources.size());
         for (URL url : resources) {
-            builder.withConfig(url.toString(), load(loader, url, strInterpolator, lookup));
+            tasks.add(() -> load(loader, url, strInterpolator, lookup));
+        }
+        List<Config> configs = loadAll(resourceName, tasks);
+        for (int i = 0; i < resources.size(); i++) {
+            builder.withConfig(resources.get(i).toString(), configs.get(i));
         }
         
         CompositeConfig config = builder.build();
@@ -67,31 +104,47 @@ public class PropertiesConfigReader implements ConfigReader {
         return config;
     }
 
+    private List<Config> loadAll(String resourceName, List<Callable<Config>> tasks) throws ConfigException {
+        try {
+            return Futures.runInOrder(executor, tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigException("Interrupted while loading " + resourceName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ConfigException) {
+                throw (ConfigException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ConfigException("Failed to load " + resourceName, e.getCause());
+        }
+    }
+
     @Override
     public Config load(ClassLoader loader, URL url, StrInterpolator strInterpolator, StrInterpolator.Lookup lookup) throws ConfigException {
-        Properties props = new Properties();
+        Map<String, String> props = new HashMap<>();
         internalLoad(props, new HashSet<String>(), loader, url, strInterpolator, lookup);
-        return MapConfig.from(props);
+        return MapConfig.from(deduplicateStrings ? StringInterner.internAll(props) : props);
     }
     
-    private void internalLoad(Properties props, Set<String> seenUrls, ClassLoader loader, URL url, StrInterpolator strInterpolator, StrInterpolator.Lookup lookup) {
+    private void internalLoad(Map<String, String> props, Set<String> seenUrls, ClassLoader loader, URL url, StrInterpolator strInterpolator, StrInterpolator.Lookup lookup) {
         LOG.debug("Attempting to load : {}", url.toExternalForm());
         // Guard against circular dependencies 
         if (!seenUrls.contains(url.toExternalForm())) {
             seenUrls.add(url.toExternalForm());
             
             try {
-                // Load properties into the single Properties object overriding any property
+                // Load properties into the single map overriding any property
                 // that may already exist
-                Map<String, String> p = new URLConfigReader(url).call().getToAdd();
+                URLConfigReader.load(url, props);
                 LOG.debug("Loaded : {}", url.toExternalForm());
-                props.putAll(p);
     
                 // Recursively load any files referenced by one of several 'include' properties
                 // in the file.  The property value contains a list of URL's to load, where the
                 // last loaded file wins for any individual property collisions. 
                 for (String nextLoadPropName : INCLUDE_KEYS) {
-                    String nextLoadValue = (String)props.remove(nextLoadPropName);
+                    String nextLoadValue = props.remove(nextLoadPropName);
                     if (nextLoadValue != null) {
                         for (String urlString : nextLoadValue.split(",")) {
                             for (URL nextUrl : getResources(loader, strInterpolator.create(lookup).resolve(urlString))) {
@@ -111,7 +164,7 @@ public class PropertiesConfigReader implements ConfigReader {
 
     @Override
     public boolean canLoad(ClassLoader loader, String name) {
-        return getResources(loader, name) != null;
+        return !getResources(loader, name).isEmpty();
     }
 
     @Override
@@ -130,19 +183,8 @@ public class PropertiesConfigReader implements ConfigReader {
             loader = Thread.currentThread().getContextClassLoader();
         }
         
-        if (loader != null) {
-            try {
-                resources.addAll(Collections.list(loader.getResources(resourceName)));
-            } catch (IOException e) {
-                LOG.debug("Failed to load resources for {}", resourceName, e);
-            }
-        }
-        
-        try {
-            resources.addAll(Collections.list(ClassLoader.getSystemResources(resourceName)));
-        } catch (IOException e) {
-            LOG.debug("Failed to load resources for {}", resourceName, e);
-        }
+        // Classpath lookups are cached per class loader
+        resources.addAll(ResourceIndex.forClassLoader(loader).getResources(resourceName));
         
         try {
             resourceName = URLDecoder.decode(resourceName, "UTF-8");
@@ -0,0 +1,304 @@
+package com.netflix.archaius.readers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Parser for .properties files encoded in UTF-8, with the same syntax as {@link java.util.Properties#load(java.io.Reader)}:
+ * comments, line continuations, the '=', ':' and whitespace separators and the \t, \n, \f, \r and \\uxxxx escapes.
+ * <p>
+ * Unlike loading into {@link java.util.Properties} through an {@link java.io.InputStreamReader} and then copying the
+ * entries into a map, the parser decodes bytes directly into a reusable line buffer and puts each key and value into
+ * the target map as soon as the line is complete, so the only objects allocated per entry are the key and value
+ * strings themselves.
+ * <p>
+ * Instances are not thread safe; use the static methods.
+ */
+public final class PropertiesParser {
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /**
+     * Parse all properties from the stream into the target map, overriding existing entries.  The stream is read to
+     * the end but not closed.
+     *
+     * @throws IllegalArgumentException if the input contains a malformed \\uxxxx escape
+     */
+    public static void parse(InputStream in, Map<String, String> target) throws IOException {
+        parse(ByteBuffer.wrap(readAll(in)), target);
+    }
+
+    /**
+     * Parse all properties from the buffer's remaining bytes into the target map, overriding existing entries.
+     *
+     * @throws IllegalArgumentException if the input contains a malformed \\uxxxx escape
+     */
+    public static void parse(ByteBuffer bytes, Map<String, String> target) {
+        new PropertiesParser(bytes).parseInto(target);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 8192));
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private final ByteBuffer in;
+    private char[] line = new char[256];
+    private char[] converted = new char[256];
+
+    /** Low surrogate of a decoded supplementary character, returned by the next call to nextChar. */
+    private int pendingChar = -1;
+
+    private PropertiesParser(ByteBuffer in) {
+        this.in = in;
+    }
+
+    private void parseInto(Map<String, String> target) {
+        int limit;
+        while ((limit = readLine()) >= 0) {
+            int keyLen = 0;
+            int valueStart = limit;
+            boolean hasSep = false;
+            boolean precedingBackslash = false;
+            while (keyLen < limit) {
+                char c = line[keyLen];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    hasSep = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLen++;
+            }
+            while (valueStart < limit) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSep && (c == '=' || c == ':')) {
+                        hasSep = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            String key = convert(0, keyLen);
+            String value = convert(valueStart, limit - valueStart);
+            target.put(key, value);
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    /**
+     * Read the next logical line into the line buffer, skipping blank and comment lines and joining continuations.
+     *
+     * @return length of the line or -1 at the end of the input
+     */
+    private int readLine() {
+        int len = 0;
+        boolean skipWhiteSpace = true;
+        boolean isCommentLine = false;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLF = false;
+
+        while (true) {
+            int c = nextChar();
+            if (c < 0) {
+                if (len == 0 || isCommentLine) {
+                    return -1;
+                }
+                return precedingBackslash ? len - 1 : len;
+            }
+
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (skipWhiteSpace) {
+                if (isWhitespace(c)) {
+                    continue;
+                }
+                if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhiteSpace = false;
+                appendedLineBegin = false;
+            }
+            // As in Properties.load since Java 9, a comment starts wherever the logical line is still empty
+            if (len == 0 && !isCommentLine) {
+                if (c == '#' || c == '!') {
+                    isCommentLine = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r') {
+                if (isCommentLine) {
+                    continue;
+                }
+                if (len == line.length) {
+                    line = grow(line);
+                }
+                line[len++] = (char) c;
+                precedingBackslash = c == '\\' && !precedingBackslash;
+            } else if (isCommentLine || len == 0) {
+                isCommentLine = false;
+                skipWhiteSpace = true;
+                len = 0;
+            } else if (precedingBackslash) {
+                // Continuation: drop the backslash and the next line's leading whitespace.  A continuation at the
+                // very end of the input still yields the line, even if it is now empty.
+                len--;
+                if (!in.hasRemaining()) {
+                    return len;
+                }
+                skipWhiteSpace = true;
+                appendedLineBegin = true;
+                precedingBackslash = false;
+                skipLF = c == '\r';
+            } else {
+                return len;
+            }
+        }
+    }
+
+    /** Decode the next UTF-8 character, -1 at the end of input.  Malformed input is replaced with U+FFFD. */
+    private int nextChar() {
+        if (pendingChar >= 0) {
+            int c = pendingChar;
+            pendingChar = -1;
+            return c;
+        }
+        if (!in.hasRemaining()) {
+            return -1;
+        }
+
+        int b = in.get() & 0xff;
+        if (b < 0x80) {
+            return b;
+        }
+        if (b < 0xC2) {
+            return REPLACEMENT;
+        }
+        if (b < 0xE0) {
+            int b1 = continuation(0x80, 0xBF);
+            return b1 < 0 ? REPLACEMENT : ((b & 0x1F) << 6) | b1;
+        }
+        if (b < 0xF0) {
+            int b1 = continuation(b == 0xE0 ? 0xA0 : 0x80, b == 0xED ? 0x9F : 0xBF);
+            if (b1 < 0) {
+                return REPLACEMENT;
+            }
+            int b2 = continuation(0x80, 0xBF);
+            return b2 < 0 ? REPLACEMENT : ((b & 0x0F) << 12) | (b1 << 6) | b2;
+        }
+        if (b < 0xF5) {
+            int b1 = continuation(b == 0xF0 ? 0x90 : 0x80, b == 0xF4 ? 0x8F : 0xBF);
+            if (b1 < 0) {
+                return REPLACEMENT;
+            }
+            int b2 = continuation(0x80, 0xBF);
+            if (b2 < 0) {
+                return REPLACEMENT;
+            }
+            int b3 = continuation(0x80, 0xBF);
+            if (b3 < 0) {
+                return REPLACEMENT;
+            }
+            int codePoint = ((b & 0x07) << 18) | (b1 << 12) | (b2 << 6) | b3;
+            pendingChar = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+        return REPLACEMENT;
+    }
+
+    /**
+     * Consume the next byte if it is a continuation byte within the range and return its payload, otherwise leave it
+     * in the buffer and return -1.
+     */
+    private int continuation(int min, int max) {
+        if (!in.hasRemaining()) {
+            return -1;
+        }
+        int b = in.get(in.position()) & 0xff;
+        if (b < min || b > max) {
+            return -1;
+        }
+        in.get();
+        return b & 0x3F;
+    }
+
+    /** Create a string from a section of the line buffer, resolving escapes. */
+    private String convert(int offset, int length) {
+        int end = offset + length;
+        int firstEscape = -1;
+        for (int i = offset; i < end; i++) {
+            if (line[i] == '\\') {
+                firstEscape = i;
+                break;
+            }
+        }
+        if (firstEscape < 0) {
+            return new String(line, offset, length);
+        }
+
+        if (converted.length < length) {
+            converted = new char[Math.max(length, converted.length * 2)];
+        }
+        int outLen = firstEscape - offset;
+        System.arraycopy(line, offset, converted, 0, outLen);
+        int i = firstEscape;
+        while (i < end) {
+            char c = line[i++];
+            if (c == '\\' && i < end) {
+                c = line[i++];
+                if (c == 'u') {
+                    int value = 0;
+                    for (int j = 0; j < 4; j++) {
+                        int digit = i < end ? Character.digit(line[i++], 16) : -1;
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    converted[outLen++] = (char) value;
+                } else {
+                    if (c == 't') {
+                        c = '\t';
+                    } else if (c == 'r') {
+                        c = '\r';
+                    } else if (c == 'n') {
+                        c = '\n';
+                    } else if (c == 'f') {
+                        c = '\f';
+                    }
+                    converted[outLen++] = c;
+                }
+            } else {
+                converted[outLen++] = c;
+            }
+        }
+        return new String(converted, 0, outLen);
+    }
+
+    private static char[] grow(char[] buffer) {
+        char[] grown = new char[buffer.length * 2];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+}
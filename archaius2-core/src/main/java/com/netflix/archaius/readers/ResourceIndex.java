@@ -0,0 +1,117 @@
+package com.netflix.archaius.readers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the classpath resources visible to a ClassLoader (and the system ClassLoader) so that repeated lookups of
+ * the same resource name, such as canLoad followed by load or the same cascade candidate requested by several
+ * components, scan the classpath only once.  There is one index per ClassLoader, held weakly, so a new ClassLoader
+ * always starts from a fresh index.
+ * <p>
+ * Scanning can be avoided entirely for names that do not exist by shipping a manifest listing all resource names that
+ * may be loaded, one per line, and naming it with the {@value #MANIFEST_PROPERTY} system property.  All copies of the
+ * manifest visible to the ClassLoader are merged.  Names that are not listed are then assumed to be absent from the
+ * classpath, so the manifest must cover every jar that provides configuration.
+ */
+final class ResourceIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceIndex.class);
+
+    static final String MANIFEST_PROPERTY = "archaius.properties.manifest";
+
+    private static final Map<ClassLoader, ResourceIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    static ResourceIndex forClassLoader(ClassLoader loader) {
+        return INDEXES.computeIfAbsent(loader, ResourceIndex::new);
+    }
+
+    /** Weak so that the index, which is the value in a weak map keyed by the loader, does not pin the loader. */
+    private final WeakReference<ClassLoader> loader;
+    private final Set<String> manifest;
+    private final ConcurrentMap<String, List<URL>> resources = new ConcurrentHashMap<>();
+
+    private ResourceIndex(ClassLoader loader) {
+        this.loader = new WeakReference<>(loader);
+        this.manifest = loadManifest(loader, System.getProperty(MANIFEST_PROPERTY));
+    }
+
+    /** Return the URLs of all resources with this name, in classpath order. */
+    List<URL> getResources(String resourceName) {
+        if (manifest != null && !manifest.contains(resourceName)) {
+            return Collections.emptyList();
+        }
+        return resources.computeIfAbsent(resourceName, this::scan);
+    }
+
+    private List<URL> scan(String resourceName) {
+        LinkedHashSet<URL> urls = new LinkedHashSet<>();
+        ClassLoader loader = this.loader.get();
+        if (loader != null) {
+            try {
+                urls.addAll(Collections.list(loader.getResources(resourceName)));
+            } catch (IOException e) {
+                LOG.debug("Failed to load resources for {}", resourceName, e);
+            }
+        }
+
+        try {
+            urls.addAll(Collections.list(ClassLoader.getSystemResources(resourceName)));
+        } catch (IOException e) {
+            LOG.debug("Failed to load resources for {}", resourceName, e);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(urls));
+    }
+
+    private static Set<String> loadManifest(ClassLoader loader, String manifestName) {
+        if (manifestName == null) {
+            return null;
+        }
+
+        try {
+            Set<URL> urls = new LinkedHashSet<>();
+            if (loader != null) {
+                urls.addAll(Collections.list(loader.getResources(manifestName)));
+            }
+            urls.addAll(Collections.list(ClassLoader.getSystemResources(manifestName)));
+            if (urls.isEmpty()) {
+                LOG.warn("Resource manifest '{}' not found. Falling back to classpath scanning", manifestName);
+                return null;
+            }
+
+            Set<String> names = new HashSet<>();
+            for (URL url : urls) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            names.add(line);
+                        }
+                    }
+                }
+            }
+            LOG.debug("Loaded {} resource names from manifest '{}'", names.size(), manifestName);
+            return names;
+        } catch (IOException e) {
+            LOG.warn("Failed to read resource manifest '{}'. Falling back to classpath scanning", manifestName, e);
+            return null;
+        }
+    }
+}
@@ -17,23 +17,37 @@ package com.netflix.archaius.readers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Properties;
 import java.util.concurrent.Callable;
 
 import com.netflix.archaius.config.polling.PollingResponse;
+import com.netflix.archaius.util.FileStamp;
+import com.netflix.archaius.util.MappedFiles;
 
+/**
+ * Reader of .properties files from a list of URLs, for use with {@link com.netflix.archaius.config.PollingDynamicConfig}.
+ * Later URLs override properties from earlier ones.
+ * <p>
+ * Files referenced by file: URLs are read directly from disk, memory-mapped when large.  When all URLs are file: URLs
+ * and none of the files changed size, modification time or identity since the previous call, the reader returns a
+ * response without data so that the files are not parsed again.
+ */
 public class URLConfigReader implements Callable<PollingResponse> {
     private final URL[] configUrls;
 
+    /** Stamps of the files as of the last call, or null if there was none or not all URLs are files. */
+    private volatile FileStamp[] lastStamps;
+
     /**
      * Create an instance with a list URLs to be used.
      * 
@@ -69,30 +83,16 @@ public class URLConfigReader implements Callable<PollingResponse> {
     
     @Override
     public PollingResponse call() throws IOException {
+        FileStamp[] stamps = stampFiles();
+        if (stamps != null && Arrays.equals(stamps, lastStamps)) {
+            return PollingResponse.noop();
+        }
+
         final Map<String, String> map = new HashMap<String, String>();
         for (URL url: configUrls) {
-            Properties props = new Properties();
-            InputStream fin = url.openStream();
-            InputStreamReader reader;
-            try {
-                reader = new InputStreamReader(fin, "UTF-8");
-                try {
-                    props.load(reader);
-                }
-                finally {
-                    if (reader != null) {
-                        reader.close();
-                    }
-                }
-            }
-            finally {
-                fin.close();
-            }
-            
-            for (Entry<Object, Object> entry: props.entrySet()) {
-                map.put((String) entry.getKey(), entry.getValue().toString());
-            }
+            load(url, map);
         }
+        lastStamps = stamps;
         return new PollingResponse() {
             @Override
             public Map<String, String> getToAdd() {
@@ -111,6 +111,52 @@ public class URLConfigReader implements Callable<PollingResponse> {
         };
     }
 
+    /**
+     * Stamp the files before reading them so that a change made while they are read is picked up by the next call.
+     *
+     * @return the stamps of all files or null if not all URLs are file: URLs
+     */
+    private FileStamp[] stampFiles() throws IOException {
+        FileStamp[] stamps = new FileStamp[configUrls.length];
+        for (int i = 0; i < configUrls.length; i++) {
+            Path path = toPath(configUrls[i]);
+            if (path == null) {
+                return null;
+            }
+            stamps[i] = FileStamp.of(path);
+        }
+        return stamps;
+    }
+
+    /**
+     * Parse the properties at the URL directly into the target map, overriding any existing entries.
+     */
+    static void load(URL url, Map<String, String> target) throws IOException {
+        Path path = toPath(url);
+        if (path != null) {
+            PropertiesParser.parse(MappedFiles.read(path), target);
+            return;
+        }
+
+        try (InputStream in = url.openStream()) {
+            PropertiesParser.parse(in, target);
+        }
+    }
+
+    /**
+     * @return path of the local file referenced by the URL or null if it is not a file: URL
+     */
+    static Path toPath(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
     public List<URL> getConfigUrls() {
         return Collections.unmodifiableList(Arrays.asList(configUrls));
     }
@@ -0,0 +1,237 @@
+package com.netflix.archaius.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable hash map with a small footprint, for large maps that are built once and then only read.  Keys, values and
+ * key hashes are stored in parallel arrays in the iteration order of the source map, and an open addressing table of
+ * positions with linear probing maps hashes to entries.  There are no per entry objects, so a map takes less than half
+ * the memory of a {@link java.util.HashMap} holding the same entries, and iteration is a scan of the arrays.
+ * <p>
+ * Keys must not be null.  Null values are allowed.  The {@link Map} mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @see PersistentHashMap for maps that are updated incrementally
+ */
+public final class CompactHashMap<K, V> extends AbstractMap<K, V> {
+    private static final CompactHashMap<?, ?> EMPTY = new CompactHashMap<>(new Object[0], new Object[0], new int[0], new int[1]);
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> CompactHashMap<K, V> empty() {
+        return (CompactHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Return a compact map with the same entries, in the same iteration order, as the provided map.  No copy is made if
+     * the map is already a CompactHashMap.
+     *
+     * @throws NullPointerException if the map contains a null key
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> CompactHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof CompactHashMap) {
+            return (CompactHashMap<K, V>) map;
+        }
+        int size = map.size();
+        if (size == 0) {
+            return empty();
+        }
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        int[] hashes = new int[size];
+        // The table always has free slots so that probing for a missing key terminates
+        int[] table = new int[size + size / 3 + 1];
+        int count = 0;
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == size) {
+                throw new ConcurrentModificationException();
+            }
+            Object key = entry.getKey();
+            if (key == null) {
+                throw new NullPointerException("Null keys are not supported");
+            }
+            int hash = hash(key);
+            keys[count] = key;
+            values[count] = entry.getValue();
+            hashes[count] = hash;
+            int slot = indexFor(hash, table.length);
+            while (table[slot] != 0) {
+                slot = slot + 1 == table.length ? 0 : slot + 1;
+            }
+            table[slot] = ++count;
+        }
+        if (count != size) {
+            throw new ConcurrentModificationException();
+        }
+        return new CompactHashMap<>(keys, values, hashes, table);
+    }
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int[] hashes;
+    /** Position in the arrays of the entry in each slot, plus one, or 0 for an empty slot */
+    private final int[] table;
+
+    private CompactHashMap(Object[] keys, Object[] values, int[] hashes, int[] table) {
+        this.keys = keys;
+        this.values = values;
+        this.hashes = hashes;
+        this.table = table;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /** Map a hash to a slot of a table of any length, using the high bits of the mixed hash. */
+    private static int indexFor(int hash, int length) {
+        return (int) (((hash * 0x9E3779B9) & 0xFFFFFFFFL) * length >>> 32);
+    }
+
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int hash = hash(key);
+        int slot = indexFor(hash, table.length);
+        int position;
+        while ((position = table[slot]) != 0) {
+            position--;
+            if (hashes[position] == hash && key.equals(keys[position])) {
+                return position;
+            }
+            slot = slot + 1 == table.length ? 0 : slot + 1;
+        }
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int position = find(key);
+        return position < 0 ? null : (V) values[position];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept((K) keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<K> iterator() {
+                return new ArrayIterator<>(i -> (K) keys[i]);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<V> iterator() {
+                return new ArrayIterator<>(i -> (V) values[i]);
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<Entry<K, V>> iterator() {
+                return new ArrayIterator<>(i -> new SimpleImmutableEntry<>((K) keys[i], (V) values[i]));
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                int position = find(entry.getKey());
+                if (position < 0) {
+                    return false;
+                }
+                Object value = values[position];
+                return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private final class ArrayIterator<T> implements Iterator<T> {
+        private final IntFunction<T> element;
+        private int next;
+
+        ArrayIterator(IntFunction<T> element) {
+            this.element = element;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            return element.apply(next++);
+        }
+    }
+}
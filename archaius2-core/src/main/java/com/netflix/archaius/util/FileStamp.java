@@ -0,0 +1,66 @@
+package com.netflix.archaius.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * Size, modification time and, where the file system provides one, identity of a file at a point in time.  Two equal
+ * stamps mean the file very likely has the same content, so the stamp is used to skip re-reading files that have not
+ * changed.  Including the file key means that a file replaced through an atomic rename is seen as changed even if
+ * the new file has the same size and modification time.
+ */
+public final class FileStamp {
+    private final long size;
+    private final FileTime lastModified;
+    private final Object fileKey;
+
+    /**
+     * @throws IOException if the file does not exist or its attributes cannot be read
+     */
+    public static FileStamp of(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        return new FileStamp(attrs.size(), attrs.lastModifiedTime(), attrs.fileKey());
+    }
+
+    private FileStamp(long size, FileTime lastModified, Object fileKey) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.fileKey = fileKey;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public FileTime getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FileStamp)) {
+            return false;
+        }
+        FileStamp other = (FileStamp) obj;
+        return size == other.size
+                && lastModified.equals(other.lastModified)
+                && Objects.equals(fileKey, other.fileKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, lastModified, fileKey);
+    }
+
+    @Override
+    public String toString() {
+        return "FileStamp[size=" + size + ", lastModified=" + lastModified + ", fileKey=" + fileKey + "]";
+    }
+}
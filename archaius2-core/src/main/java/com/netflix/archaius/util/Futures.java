@@ -15,8 +15,14 @@
  */
 package com.netflix.archaius.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -51,4 +57,38 @@ public class Futures {
             }
         };
     }
+
+    /**
+     * Run the tasks concurrently on the executor and return their results in task order.  The calling thread runs
+     * any task the executor has not started yet instead of waiting for it, so a task may itself call this method with
+     * the same bounded executor without risk of starving it.  A null executor runs all tasks on the calling thread.
+     *
+     * @throws ExecutionException for the first task, in task order, that failed
+     */
+    public static <T> List<T> runInOrder(Executor executor, List<? extends Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+        List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(new FutureTask<>(task));
+        }
+
+        if (executor != null) {
+            // The first task is always run by the caller
+            for (int i = 1; i < futures.size(); i++) {
+                try {
+                    executor.execute(futures.get(i));
+                } catch (RejectedExecutionException e) {
+                    // Will be run by the caller
+                }
+            }
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (FutureTask<T> future : futures) {
+            // No-op if the task was already started by the executor
+            future.run();
+            results.add(future.get());
+        }
+        return results;
+    }
 }
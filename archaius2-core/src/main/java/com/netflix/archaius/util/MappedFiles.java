@@ -0,0 +1,86 @@
+package com.netflix.archaius.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utilities for reading whole local files into a {@link ByteBuffer} that parsers can consume directly.  Large files
+ * are memory-mapped so that they are paged in by the OS instead of being copied through stream buffers onto the heap.
+ * The mapping is released when the buffer is garbage collected.
+ */
+public final class MappedFiles {
+    /** Files smaller than this are read onto the heap since mapping them costs more than copying. */
+    static final int MAP_THRESHOLD = 64 * 1024;
+
+    private MappedFiles() {
+    }
+
+    /**
+     * Return the full content of the file.  Large files are memory-mapped read only.
+     */
+    public static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full or the file was truncated
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Return a stream over the buffer's remaining bytes, for consumers that only accept an InputStream.  The
+     * buffer's position is not modified.
+     */
+    public static InputStream newInputStream(ByteBuffer buffer) {
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.netflix.archaius.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash map implemented as a hash array mapped trie.  Updates via {@link #plus(Object, Object)} and
+ * {@link #minus(Object)} return a new map which shares all but the O(log32 n) nodes along the path to the changed key
+ * with the original, so publishing a new version of a large map after a single key change produces very little
+ * garbage.  Reads never lock, making instances well suited to be published through a volatile field.
+ * <p>
+ * Bulk changes should go through a {@link Builder}, which mutates nodes it created itself in place and only copies
+ * nodes shared with published maps.
+ * <p>
+ * Keys must not be null.  Null values are allowed.  The {@link Map} mutators throw
+ * {@link UnsupportedOperationException}.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** 7 levels of 5 bits cover the 32 bit hash, plus one level for a collision node. */
+    private static final int MAX_DEPTH = 8;
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Return a persistent map with the same entries as the provided map.  No copy is made if the map is already a
+     * PersistentHashMap.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            return (PersistentHashMap<K, V>) map;
+        }
+        Builder<K, V> builder = builder();
+        map.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(null, 0);
+    }
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** Return a builder initialized with the entries of this map.  The map itself is not affected by the builder. */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    /** Return a map with the key mapped to the value, or this map if the key was already mapped to that value. */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        Box added = new Box();
+        Node newRoot = (root == null ? BitmapIndexedNode.EMPTY : root).assoc(null, 0, hash(key), key, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added.value ? size + 1 : size);
+    }
+
+    /** Return a map without the key, or this map if the key was not present. */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (root == null) {
+            return this;
+        }
+        Box removed = new Box();
+        Node newRoot = root.without(null, 0, hash(key), key, removed);
+        if (!removed.value) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || key == null) {
+            return null;
+        }
+        Object value = root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root != null && key != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                Object key = entry.getKey();
+                if (key == null || root == null) {
+                    return false;
+                }
+                Object value = root.find(0, hash(key), key);
+                return value != NOT_FOUND && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Mutable builder for a {@link PersistentHashMap}.  Nodes created by the builder are updated in place until
+     * {@link #build()} is called, after which any further change copies them again.  Builders are not thread safe.
+     */
+    public static final class Builder<K, V> {
+        private Object edit = new Object();
+        private Node root;
+        private int size;
+
+        private Builder(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            Box added = new Box();
+            root = (root == null ? BitmapIndexedNode.EMPTY : root).assoc(edit, 0, hash(key), key, value, added);
+            if (added.value) {
+                size++;
+            }
+            return this;
+        }
+
+        /** Add the key only if it is not already present, keeping the existing value otherwise. */
+        public Builder<K, V> putIfAbsent(K key, V value) {
+            if (!containsKey(key)) {
+                put(key, value);
+            }
+            return this;
+        }
+
+        public Builder<K, V> putAll(Map<? extends K, ? extends V> map) {
+            map.forEach(this::put);
+            return this;
+        }
+
+        public Builder<K, V> remove(Object key) {
+            if (root != null) {
+                Box removed = new Box();
+                root = root.without(edit, 0, hash(key), key, removed);
+                if (removed.value) {
+                    size--;
+                }
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            if (root == null) {
+                return null;
+            }
+            Object value = root.find(0, hash(key), key);
+            return value == NOT_FOUND ? null : (V) value;
+        }
+
+        public boolean containsKey(Object key) {
+            return root != null && root.find(0, hash(key), key) != NOT_FOUND;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PersistentHashMap<K, V> build() {
+            // Nodes owned by the previous edit token are now shared with the returned map and must not change again
+            edit = new Object();
+            return root == null || size == 0 ? empty() : new PersistentHashMap<>(root, size);
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /** Mutable flag used to report whether an operation added or removed an entry. */
+    private static final class Box {
+        boolean value;
+    }
+
+    /**
+     * Node of the trie.  The array holds key/value pairs; a null key marks a pair whose value slot holds a child node.
+     * Fields are only mutated by the builder owning the node's edit token.
+     */
+    private abstract static class Node {
+        final Object edit;
+        Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added);
+
+        /** Return the node without the key, null if the node became empty. */
+        abstract Node without(Object edit, int shift, int hash, Object key, Box removed);
+
+        void forEach(BiConsumer<Object, Object> action) {
+            Object[] array = this.array;
+            for (int i = 0; i < array.length; i += 2) {
+                Object key = array[i];
+                if (key == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(key, array[i + 1]);
+                }
+            }
+        }
+
+        boolean isEditable(Object edit) {
+            return edit != null && edit == this.edit;
+        }
+    }
+
+    private static final class BitmapIndexedNode extends Node {
+        static final BitmapIndexedNode EMPTY = new BitmapIndexedNode(null, 0, new Object[0]);
+
+        int bitmap;
+
+        BitmapIndexedNode(Object edit, int bitmap, Object[] array) {
+            super(edit, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int idx = 2 * index(bit);
+            Object keyOrNull = array[idx];
+            Object valueOrNode = array[idx + 1];
+            if (keyOrNull == null) {
+                return ((Node) valueOrNode).find(shift + BITS, hash, key);
+            }
+            return key.equals(keyOrNull) ? valueOrNode : NOT_FOUND;
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added) {
+            int bit = bitpos(hash, shift);
+            int idx = 2 * index(bit);
+            if ((bitmap & bit) != 0) {
+                Object keyOrNull = array[idx];
+                Object valueOrNode = array[idx + 1];
+                if (keyOrNull == null) {
+                    Node node = ((Node) valueOrNode).assoc(edit, shift + BITS, hash, key, value, added);
+                    return node == valueOrNode ? this : set(edit, idx + 1, node);
+                }
+                if (key.equals(keyOrNull)) {
+                    return valueOrNode == value ? this : set(edit, idx + 1, value);
+                }
+                added.value = true;
+                Node node = createNode(edit, shift + BITS, keyOrNull, valueOrNode, hash, key, value);
+                return set(edit, idx, null, node);
+            }
+
+            added.value = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            newArray[idx] = key;
+            newArray[idx + 1] = value;
+            System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+            if (isEditable(edit)) {
+                this.array = newArray;
+                this.bitmap |= bit;
+                return this;
+            }
+            return new BitmapIndexedNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Box removed) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = 2 * index(bit);
+            Object keyOrNull = array[idx];
+            Object valueOrNode = array[idx + 1];
+            if (keyOrNull == null) {
+                Node node = ((Node) valueOrNode).without(edit, shift + BITS, hash, key, removed);
+                if (node == valueOrNode) {
+                    return this;
+                }
+                if (node != null) {
+                    return set(edit, idx + 1, node);
+                }
+            } else if (!key.equals(keyOrNull)) {
+                return this;
+            } else {
+                removed.value = true;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            if (isEditable(edit)) {
+                this.array = newArray;
+                this.bitmap ^= bit;
+                return this;
+            }
+            return new BitmapIndexedNode(edit, bitmap ^ bit, newArray);
+        }
+
+        private Node set(Object edit, int i, Object a) {
+            if (isEditable(edit)) {
+                array[i] = a;
+                return this;
+            }
+            Object[] newArray = array.clone();
+            newArray[i] = a;
+            return new BitmapIndexedNode(edit, bitmap, newArray);
+        }
+
+        private Node set(Object edit, int i, Object a, Object b) {
+            if (isEditable(edit)) {
+                array[i] = a;
+                array[i + 1] = b;
+                return this;
+            }
+            Object[] newArray = array.clone();
+            newArray[i] = a;
+            newArray[i + 1] = b;
+            return new BitmapIndexedNode(edit, bitmap, newArray);
+        }
+
+        private static Node createNode(Object edit, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new HashCollisionNode(edit, hash1, new Object[] {key1, value1, key2, value2});
+            }
+            Box ignore = new Box();
+            return new BitmapIndexedNode(edit, 0, new Object[0])
+                    .assoc(edit, shift, hash1, key1, value1, ignore)
+                    .assoc(edit, shift, hash2, key2, value2, ignore);
+        }
+    }
+
+    /** Node for keys whose full hashes are equal, searched linearly. */
+    private static final class HashCollisionNode extends Node {
+        private final int hash;
+
+        HashCollisionNode(Object edit, int hash, Object[] array) {
+            super(edit, array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int idx = indexOf(key);
+            return idx < 0 ? NOT_FOUND : array[idx + 1];
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added) {
+            if (hash != this.hash) {
+                // Push this node one level down, next to the new key
+                return new BitmapIndexedNode(edit, bitpos(this.hash, shift), new Object[] {null, this})
+                        .assoc(edit, shift, hash, key, value, added);
+            }
+            int idx = indexOf(key);
+            if (idx >= 0) {
+                if (array[idx + 1] == value) {
+                    return this;
+                }
+                if (isEditable(edit)) {
+                    array[idx + 1] = value;
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[idx + 1] = value;
+                return new HashCollisionNode(edit, hash, newArray);
+            }
+            added.value = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (isEditable(edit)) {
+                this.array = newArray;
+                return this;
+            }
+            return new HashCollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Box removed) {
+            int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+            removed.value = true;
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            if (isEditable(edit)) {
+                this.array = newArray;
+                return this;
+            }
+            return new HashCollisionNode(edit, hash, newArray);
+        }
+    }
+
+    /** Depth first iterator over the trie using an explicit, fixed size stack. */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth = -1;
+        private Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                push(root.array);
+            }
+            advance();
+        }
+
+        private void push(Object[] array) {
+            arrays[++depth] = array;
+            positions[depth] = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int pos = positions[depth];
+                if (pos >= array.length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+                positions[depth] = pos + 2;
+                Object key = array[pos];
+                if (key == null) {
+                    push(((Node) array[pos + 1]).array);
+                } else {
+                    next = new SimpleImmutableEntry<>((K) key, (V) array[pos + 1]);
+                    return;
+                }
+            }
+            next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            Entry<K, V> current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return current;
+        }
+    }
+}
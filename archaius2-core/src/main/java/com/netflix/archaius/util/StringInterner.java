@@ -0,0 +1,92 @@
+package com.netflix.archaius.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Weak interner used to deduplicate the strings of large configs as they are loaded.  The same property names and
+ * values ("true", "0", host names, ...) tend to repeat across sources and across successive polls of the same source,
+ * and each load otherwise holds its own copies.  Unlike {@link String#intern()} entries don't outlive the configs
+ * referencing them.
+ * <p>
+ * Property names from all sources go through a single shared key table, separate from the values.  Composite and
+ * layered configs reference the keys of their children rather than copying them, so every level shares the interned
+ * instances.
+ * <p>
+ * Interning is opt-in at the ingestion points, see {@code PropertiesConfigReader}, {@code PollingResponse} and
+ * {@code JsonPersistedV2Reader}.
+ */
+public final class StringInterner {
+    private static final int SEGMENTS = 16;
+
+    private static final StringInterner KEYS = new StringInterner();
+    private static final StringInterner VALUES = new StringInterner();
+
+    /** Interner shared by all property names */
+    public static StringInterner keys() {
+        return KEYS;
+    }
+
+    /** Interner shared by all property values */
+    public static StringInterner values() {
+        return VALUES;
+    }
+
+    /**
+     * Return a mutable copy of the map with its keys and values interned in the shared tables
+     */
+    public static Map<String, String> internAll(Map<String, String> map) {
+        Map<String, String> interned = Maps.newHashMap(map.size());
+        map.forEach((key, value) -> interned.put(KEYS.intern(key), VALUES.intern(value)));
+        return interned;
+    }
+
+    // Segments are locked independently so that concurrent loads don't all contend on a single lock
+    private final Map<String, WeakReference<String>>[] segments;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StringInterner() {
+        segments = new Map[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * @return The canonical instance equal to the string, which is the string itself if there was none.  Null for null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, WeakReference<String>> segment = segmentFor(value);
+        synchronized (segment) {
+            WeakReference<String> ref = segment.get(value);
+            String canonical = ref == null ? null : ref.get();
+            if (canonical == null) {
+                segment.put(value, new WeakReference<>(value));
+                canonical = value;
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * @return Number of distinct strings currently held
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Map<String, WeakReference<String>> segmentFor(String value) {
+        int h = value.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,210 @@
+package com.netflix.archaius;
+
+import com.netflix.archaius.api.Config;
+import com.netflix.archaius.api.annotations.Configuration;
+import com.netflix.archaius.config.DefaultSettableConfig;
+import com.netflix.archaius.config.MapConfig;
+import com.netflix.archaius.exceptions.MappingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConfigMapperTest {
+
+    @Configuration(prefix = "service.${name}", params = {"name"}, allowFields = true, postConfigure = "init")
+    public static class ServiceConfig {
+        private final String name;
+        private int timeout;
+        private String host;
+        private Long retries;
+        private boolean initialized;
+        private transient String ignored;
+
+        public ServiceConfig(String name) {
+            this.name = name;
+        }
+
+        public void setHost(String host) {
+            this.host = host.toUpperCase();
+        }
+
+        public ServiceConfig withRetries(Long retries) {
+            this.retries = retries;
+            return this;
+        }
+
+        public void init() {
+            initialized = true;
+        }
+    }
+
+    @Configuration(prefix = "bad", postConfigure = "missing")
+    public static class MissingPostConfigure {
+    }
+
+    @Configuration(prefix = "dynamic", allowFields = true, postConfigure = "reconfigure", dynamic = true)
+    public static class DynamicConfig {
+        private volatile int timeout;
+        private volatile String host;
+        private volatile int reconfigured;
+
+        public void reconfigure() {
+            reconfigured++;
+        }
+    }
+
+    @Configuration(prefix = "changing", allowFields = true, postConfigure = "reconfigure", dynamic = true)
+    public static class ChangedWhileMapping {
+        private final DefaultSettableConfig config;
+        private volatile int timeout;
+
+        ChangedWhileMapping(DefaultSettableConfig config) {
+            this.config = config;
+        }
+
+        public void reconfigure() {
+            // Simulates a change landing after the initial values were read
+            if (timeout == 1) {
+                config.setProperty("changing.timeout", "2");
+            }
+        }
+    }
+
+    public static class NotAnnotated {
+        private String host;
+    }
+
+    private final Config config = MapConfig.builder()
+            .put("service.foo.timeout", "100")
+            .put("service.foo.host", "localhost")
+            .put("service.foo.retries", "3")
+            .put("service.foo.ignored", "value")
+            .put("service.bar.timeout", "200")
+            .build();
+
+    @Test
+    public void mapsFieldsSettersAndBuilderMethods() throws MappingException {
+        ConfigMapper mapper = new ConfigMapper();
+        ServiceConfig foo = new ServiceConfig("foo");
+        mapper.mapConfig(foo, config);
+
+        // setHost overrides the value assigned to the field
+        assertEquals("LOCALHOST", foo.host);
+        assertEquals(100, foo.timeout);
+        assertEquals(Long.valueOf(3), foo.retries);
+        assertNull(foo.ignored);
+        assertTrue(foo.initialized);
+
+        // The binding plan is shared but the prefix is interpolated per instance
+        ServiceConfig bar = new ServiceConfig("bar");
+        new ConfigMapper().mapConfig(bar, config);
+        assertEquals(200, bar.timeout);
+        assertNull(bar.host);
+        assertTrue(bar.initialized);
+    }
+
+    @Test
+    public void missingPostConfigureFailsMapping() {
+        assertThrows(MappingException.class, () -> new ConfigMapper().mapConfig(new MissingPostConfigure(), config));
+    }
+
+    @Test
+    public void classesWithoutAnnotationAreIgnored() throws MappingException {
+        NotAnnotated injectee = new NotAnnotated();
+        new ConfigMapper().mapConfig(injectee, config);
+        assertNull(injectee.host);
+    }
+
+    @Test
+    public void dynamicBindingsFollowChanges() throws MappingException {
+        DefaultSettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("dynamic.timeout", "1");
+        settable.setProperty("dynamic.host", "a");
+
+        DynamicConfig injectee = new DynamicConfig();
+        new ConfigMapper().mapConfig(injectee, settable);
+        assertEquals(1, injectee.timeout);
+        assertEquals("a", injectee.host);
+        assertEquals(1, injectee.reconfigured);
+
+        settable.setProperty("dynamic.timeout", "2");
+        assertEquals(2, injectee.timeout);
+        assertEquals("a", injectee.host);
+        assertEquals(2, injectee.reconfigured);
+
+        // Changes to unrelated properties do not trigger postConfigure
+        settable.setProperty("other", "value");
+        assertEquals(2, injectee.reconfigured);
+
+        // A batch of changes results in a single postConfigure
+        Properties props = new Properties();
+        props.setProperty("dynamic.timeout", "3");
+        props.setProperty("dynamic.host", "b");
+        settable.setProperties(props);
+        assertEquals(3, injectee.timeout);
+        assertEquals("b", injectee.host);
+        assertEquals(3, injectee.reconfigured);
+
+        // Removing a property leaves the field as is, so there is nothing to reconfigure
+        settable.clearProperty("dynamic.host");
+        assertEquals("b", injectee.host);
+        assertEquals(3, injectee.reconfigured);
+    }
+
+    @Test
+    public void dynamicBindingsSeeChangesMadeWhileMapping() throws MappingException {
+        DefaultSettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("changing.timeout", "1");
+
+        ChangedWhileMapping injectee = new ChangedWhileMapping(settable);
+        new ConfigMapper().mapConfig(injectee, settable);
+        assertEquals(2, injectee.timeout);
+    }
+
+    @Test
+    public void mappingTwiceBindsOnce() throws MappingException {
+        DefaultSettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("dynamic.timeout", "1");
+
+        DynamicConfig injectee = new DynamicConfig();
+        ConfigMapper mapper = new ConfigMapper();
+        mapper.mapConfig(injectee, settable);
+        mapper.mapConfig(injectee, settable);
+        assertEquals(2, injectee.reconfigured);
+
+        settable.setProperty("dynamic.timeout", "2");
+        assertEquals(2, injectee.timeout);
+        assertEquals(3, injectee.reconfigured);
+    }
+
+    @Test
+    public void bindingsOfCollectedObjectsAreRemovedByTheNextMapping() throws Exception {
+        ListenerCountingConfig settable = new ListenerCountingConfig();
+        ConfigMapper mapper = new ConfigMapper();
+        mapper.mapConfig(new DynamicConfig(), settable);
+        assertEquals(1, settable.listenerCount());
+
+        DynamicConfig other = new DynamicConfig();
+        mapper.mapConfig(other, settable);
+        // The first object's binding goes once a collection has enqueued its reference
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (settable.listenerCount() > 1 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            mapper.mapConfig(other, settable);
+        }
+        assertEquals(1, settable.listenerCount());
+    }
+
+    private static class ListenerCountingConfig extends DefaultSettableConfig {
+        int listenerCount() {
+            return getListeners().size();
+        }
+    }
+}
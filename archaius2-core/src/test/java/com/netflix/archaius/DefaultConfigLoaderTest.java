@@ -11,9 +11,12 @@ import com.netflix.archaius.config.MapConfig;
 import com.netflix.archaius.readers.PropertiesConfigReader;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -65,4 +68,31 @@ public class DefaultConfigLoaderTest {
         assertEquals("a,b", applicationConfig.getString("application.list2"));
         assertTrue(applicationConfig.getBoolean("application-prod.loaded"));
     }
+
+    @Test
+    public void testParallelLoadingKeepsCascadeOrder() throws ConfigException {
+        Config lookup = MapConfig.builder().put("env", "test").put("@region", "us-east-1").build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompositeConfig sequential = DefaultConfigLoader.builder()
+                    .withStrLookup(lookup)
+                    .withDefaultCascadingStrategy(ConcatCascadeStrategy.from("${env}", "${@region}"))
+                    .build()
+                    .newLoader()
+                    .load("test");
+            CompositeConfig parallel = DefaultConfigLoader.builder()
+                    .withStrLookup(lookup)
+                    .withDefaultCascadingStrategy(ConcatCascadeStrategy.from("${env}", "${@region}"))
+                    .withExecutor(executor)
+                    .build()
+                    .newLoader()
+                    .load("test");
+
+            assertEquals(new ArrayList<>(sequential.getConfigNames()), new ArrayList<>(parallel.getConfigNames()));
+            assertEquals(sequential.getString("cascaded.property"), parallel.getString("cascaded.property"));
+            assertEquals("test-test.properties", parallel.getString("cascaded.property"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.netflix.archaius;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ListenerRegistryTest {
+
+    @Test
+    public void everyCallbackRunsOnceWhenCountIsNotMultipleOfPartitions() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            for (int count = 1; count <= 50; count++) {
+                ListenerRegistry registry = new ListenerRegistry(16);
+                AtomicInteger[] runs = new AtomicInteger[count];
+                for (int i = 0; i < count; i++) {
+                    AtomicInteger run = runs[i] = new AtomicInteger();
+                    registry.add(run::incrementAndGet);
+                }
+
+                registry.runAll(executor, 1);
+                for (int i = 0; i < count; i++) {
+                    assertEquals(1, runs[i].get(), "callback " + i + " of " + count);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failureOnCallingThreadWaitsForOtherPartitions() throws InterruptedException {
+        assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ListenerRegistry registry = new ListenerRegistry();
+            AtomicInteger completed = new AtomicInteger();
+            registry.add(() -> {
+                throw new IllegalStateException("first callback fails");
+            });
+            for (int i = 0; i < 100; i++) {
+                registry.add(() -> {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.incrementAndGet();
+                });
+            }
+
+            assertThrows(IllegalStateException.class, () -> registry.runAll(executor, 1));
+            int completedOnReturn = completed.get();
+            Thread.sleep(200);
+            assertEquals(completedOnReturn, completed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
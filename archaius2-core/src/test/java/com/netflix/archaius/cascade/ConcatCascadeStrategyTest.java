@@ -0,0 +1,65 @@
+package com.netflix.archaius.cascade;
+
+import com.netflix.archaius.api.StrInterpolator;
+import com.netflix.archaius.config.DefaultSettableConfig;
+import com.netflix.archaius.interpolate.CommonsStrInterpolator;
+import com.netflix.archaius.interpolate.ConfigStrLookup;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ConcatCascadeStrategyTest {
+
+    @Test
+    public void generatedNamesAreCachedUntilVariablesChange() {
+        DefaultSettableConfig config = new DefaultSettableConfig();
+        config.setProperty("env", "test");
+        config.setProperty("region", "us-east-1");
+        StrInterpolator.Lookup lookup = ConfigStrLookup.from(config);
+
+        AtomicInteger contexts = new AtomicInteger();
+        StrInterpolator interpolator = l -> {
+            contexts.incrementAndGet();
+            return CommonsStrInterpolator.INSTANCE.create(l);
+        };
+
+        ConcatCascadeStrategy strategy = ConcatCascadeStrategy.from("${env}", "${region}");
+        List<String> names = strategy.generate("app", interpolator, lookup);
+        assertEquals(Arrays.asList("app", "app-test", "app-test-us-east-1"), names);
+        assertEquals(1, contexts.get());
+
+        assertSame(names, strategy.generate("app", interpolator, lookup));
+        assertEquals(1, contexts.get());
+
+        config.setProperty("unrelated", "value");
+        assertSame(names, strategy.generate("app", interpolator, lookup));
+
+        config.setProperty("region", "us-west-2");
+        assertEquals(Arrays.asList("app", "app-test", "app-test-us-west-2"), strategy.generate("app", interpolator, lookup));
+        assertEquals(2, contexts.get());
+
+        assertEquals(Arrays.asList("lib", "lib-test", "lib-test-us-west-2"), strategy.generate("lib", interpolator, lookup));
+    }
+
+    @Test
+    public void permutationChangesAreDetected() {
+        AtomicReference<List<String>> permutations = new AtomicReference<>(Arrays.asList("%s", "%s-${env}"));
+        InterpolatingCascadeStrategy strategy = new InterpolatingCascadeStrategy() {
+            @Override
+            protected List<String> getPermutations() {
+                return permutations.get();
+            }
+        };
+        StrInterpolator.Lookup lookup = key -> "env".equals(key) ? "prod" : null;
+
+        assertEquals(Arrays.asList("app", "app-prod"), strategy.generate("app", CommonsStrInterpolator.INSTANCE, lookup));
+        permutations.set(Arrays.asList("%s", "%s_${env}"));
+        assertEquals(Arrays.asList("app", "app_prod"), strategy.generate("app", CommonsStrInterpolator.INSTANCE, lookup));
+    }
+}
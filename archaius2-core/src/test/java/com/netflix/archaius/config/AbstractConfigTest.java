@@ -17,8 +17,10 @@ package com.netflix.archaius.config;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
+import com.netflix.archaius.api.ConfigSnapshot;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -70,4 +72,19 @@ public class AbstractConfigTest {
     public void getNonExistentProperty() {
         assertFalse(config.getProperty("non_existent").isPresent());
     }
+
+    @Test
+    public void snapshotOfConfigThatKeepsChanging() {
+        AtomicLong generation = new AtomicLong();
+        AbstractConfig changing = new MapConfig(Collections.singletonMap("foo", "bar")) {
+            @Override
+            public long getGeneration() {
+                return generation.incrementAndGet();
+            }
+        };
+
+        ConfigSnapshot snapshot = changing.snapshot();
+        assertEquals("bar", snapshot.getString("foo", null));
+        assertEquals(-1, snapshot.getGeneration());
+    }
 }
@@ -17,16 +17,25 @@ package com.netflix.archaius.config;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.netflix.archaius.api.Config;
+import com.netflix.archaius.api.ConfigListener;
+import com.netflix.archaius.api.ConfigSnapshot;
 import com.netflix.archaius.api.config.SettableConfig;
 import com.netflix.archaius.config.polling.ManualPollingStrategy;
 import com.netflix.archaius.config.polling.PollingResponse;
@@ -38,6 +47,7 @@ import com.netflix.archaius.cascade.ConcatCascadeStrategy;
 import com.netflix.archaius.api.exceptions.ConfigException;
 import com.netflix.archaius.visitor.PrintStreamVisitor;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -46,11 +56,53 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class CompositeConfigTest {
+    @Test
+    public void snapshotIsPinnedToCurrentState() throws ConfigException {
+        DefaultSettableConfig child = new DefaultSettableConfig();
+        child.setProperty("host", "a");
+        child.setProperty("port", "80");
+        child.setProperty("url", "${host}:${port}");
+        com.netflix.archaius.api.config.CompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("child", child);
+
+        ConfigSnapshot snapshot = composite.snapshot();
+        child.setProperty("host", "b");
+        child.setProperty("port", "8080");
+
+        assertEquals("a:80", snapshot.getString("url", null));
+        assertEquals(80, snapshot.getInteger("port", 0).intValue());
+        assertEquals(Arrays.asList("host", "url"), Lists.newArrayList(
+                snapshot.getAll(Arrays.asList("host", "missing", "url")).keySet()));
+        assertEquals("a", snapshot.getAll(Arrays.asList("host", "missing", "url")).get("host"));
+        assertFalse(snapshot.containsKey("missing"));
+
+        ConfigSnapshot next = composite.snapshot();
+        assertEquals("b:8080", next.getString("url", null));
+        assertTrue(next.getGeneration() > snapshot.getGeneration());
+
+        // A refresh that doesn't change any value keeps the generation
+        long generation = composite.getGeneration();
+        long hostGeneration = composite.getGeneration("host");
+        long portGeneration = composite.getGeneration("port");
+        child.setProperty("port", "8080");
+        assertEquals(generation, composite.getGeneration());
+        child.setProperty("port", "8081");
+        assertEquals(generation + 1, composite.getGeneration());
+        assertEquals(hostGeneration, composite.getGeneration("host"));
+        assertTrue(composite.getGeneration("port") > portGeneration);
+
+        // Configs without an immutable state are copied
+        ConfigSnapshot copy = child.snapshot();
+        child.setProperty("host", "c");
+        assertEquals("b:8081", copy.getString("url", null));
+    }
+
     @Test
     public void basicTest() throws ConfigException {
         Properties props = new Properties();
@@ -165,6 +217,19 @@ public class CompositeConfigTest {
         assertEquals(Sets.newHashSet("b1", "b2", "d1", "d2", "e1", "e2"), Sets.newHashSet(iter));
     }
 
+    @SuppressWarnings("deprecation")
+    @Test
+    public void getKeysWithPrefixTest() throws ConfigException {
+        com.netflix.archaius.api.config.CompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("a", MapConfig.builder().put("a.b1", "A").put("a.c1", "B").put("ab", "C").build());
+        composite.addConfig("b", MapConfig.builder().put("a.b2", "A").put("b.b1", "B").build());
+
+        assertEquals(Arrays.asList("a.b1", "a.b2", "a.c1"), Lists.newArrayList(composite.getKeys("a.")));
+        assertEquals(Arrays.asList("a.b1", "a.b2"), Lists.newArrayList(composite.getKeys("a.b")));
+        assertFalse(composite.getKeys("c").hasNext());
+        assertThrows(UnsupportedOperationException.class, composite.getKeys("a")::remove);
+    }
+
     @Test
     public void testGetKeysIteratorRemoveThrows() throws ConfigException {
         com.netflix.archaius.api.config.CompositeConfig composite = new DefaultCompositeConfig();
@@ -283,6 +348,203 @@ public class CompositeConfigTest {
         verify(accessMonitorUtil, times(6)).registerUsage((any()));
     }
 
+    @Test
+    public void addConfigsMatchesSequentialAdds() throws ConfigException {
+        for (boolean reversed : new boolean[] {false, true}) {
+            LinkedHashMap<String, Config> configs = new LinkedHashMap<>();
+            configs.put("a", MapConfig.builder().put("key", "a").put("a", "a").build());
+            configs.put("b", MapConfig.builder().put("key", "b").put("b", "b").build());
+
+            DefaultCompositeConfig sequential = new DefaultCompositeConfig(reversed);
+            sequential.addConfig("first", MapConfig.builder().put("first", "first").build());
+            for (Map.Entry<String, Config> entry : configs.entrySet()) {
+                sequential.addConfig(entry.getKey(), entry.getValue());
+            }
+
+            DefaultCompositeConfig batch = new DefaultCompositeConfig(reversed);
+            batch.addConfig("first", MapConfig.builder().put("first", "first").build());
+            ConfigListener listener = Mockito.mock(ConfigListener.class);
+            batch.addListener(listener);
+            batch.addConfigs(configs);
+
+            verify(listener, times(1)).onConfigAdded(any());
+            assertEquals(Lists.newArrayList(sequential.getConfigNames()), Lists.newArrayList(batch.getConfigNames()));
+            assertEquals(reversed ? "b" : "a", batch.getString("key"));
+            assertEquals(Sets.newHashSet(sequential.keys()), Sets.newHashSet(batch.keys()));
+        }
+    }
+
+    @Test
+    public void replaceConfigsNotifiesOnce() throws ConfigException {
+        DefaultCompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("a", MapConfig.builder().put("key", "a").build());
+        composite.addConfig("b", MapConfig.builder().put("key", "b").put("b", "b").build());
+        composite.addConfig("c", MapConfig.builder().put("key", "c").build());
+
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        composite.addListener(listener);
+
+        LinkedHashMap<String, Config> replacements = new LinkedHashMap<>();
+        replacements.put("a", MapConfig.builder().put("key", "a2").build());
+        replacements.put("b", null);
+        composite.replaceConfigs(replacements);
+
+        verify(listener, times(1)).onConfigUpdated(any());
+        assertEquals(Arrays.asList("c", "a"), Lists.newArrayList(composite.getConfigNames()));
+        assertEquals("c", composite.getString("key"));
+        assertFalse(composite.containsKey("b"));
+    }
+
+    @Test
+    public void shadowedUpdatesDoNotNotify() throws ConfigException {
+        SettableConfig overrides = new DefaultSettableConfig();
+        overrides.setProperty("key", "override");
+        SettableConfig defaults = new DefaultSettableConfig();
+        defaults.setProperty("key", "default");
+        DefaultCompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("overrides", overrides);
+        composite.addConfig("defaults", defaults);
+
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        composite.addListener(listener);
+
+        defaults.setProperty("key", "default2");
+        verify(listener, never()).onConfigUpdated(any());
+        assertEquals("override", composite.getString("key"));
+
+        defaults.setProperty("other", "default");
+        verify(listener, times(1)).onConfigUpdated(any());
+
+        overrides.clearProperty("key");
+        verify(listener, times(2)).onConfigUpdated(any());
+        assertEquals("default2", composite.getString("key"));
+    }
+
+    @Test
+    public void childUpdatesOnlyResolveTheChildsKeys() throws ConfigException {
+        for (boolean reversed : new boolean[] {false, true}) {
+            AtomicInteger iterations = new AtomicInteger();
+            SettableConfig high = new DefaultSettableConfig();
+            high.setProperty("key", "high");
+            SettableConfig middle = new DefaultSettableConfig();
+            middle.setProperty("key", "middle");
+            middle.setProperty("middle", "middle");
+            SettableConfig low = new DefaultSettableConfig() {
+                @Override
+                public void forEachPropertyUninstrumented(BiConsumer<String, Object> consumer) {
+                    iterations.incrementAndGet();
+                    super.forEachPropertyUninstrumented(consumer);
+                }
+            };
+            low.setProperty("key", "low");
+            low.setProperty("middle", "low");
+            low.setProperty("low", "low");
+            DefaultCompositeConfig composite = composite(reversed, high, middle, low);
+            iterations.set(0);
+
+            middle.clearProperty("middle");
+            assertEquals("low", composite.getString("middle"));
+            high.clearProperty("key");
+            assertEquals("middle", composite.getString("key"));
+            middle.clearProperty("key");
+            assertEquals("low", composite.getString("key"));
+            middle.setProperty("key", "middle2");
+            middle.setProperty("added", "middle");
+            assertEquals("middle2", composite.getString("key"));
+            assertEquals("middle", composite.getString("added"));
+            high.setProperty("low", "high");
+            assertEquals("high", composite.getString("low"));
+            assertEquals(0, iterations.get());
+
+            // Same content as flattening all children again
+            Map<String, Object> expected = new HashMap<>();
+            composite(reversed, high, middle, low).forEachPropertyUninstrumented(expected::put);
+            Map<String, Object> actual = new HashMap<>();
+            composite.forEachPropertyUninstrumented(actual::put);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void updatesOfViewChildOverAnotherChild() throws ConfigException {
+        SettableConfig library = new DefaultSettableConfig();
+        library.setProperty("app.x", "1");
+        DefaultCompositeConfig composite = new DefaultCompositeConfig();
+        // The view forwards listeners to the library, so its updates arrive as events of the library
+        composite.addConfig("app", new PrefixedViewConfig("app", library));
+        composite.addConfig("library", library);
+        assertEquals("1", composite.getString("x"));
+
+        library.setProperty("app.x", "2");
+        assertEquals("2", composite.getString("x"));
+        assertEquals("2", composite.getString("app.x"));
+
+        library.clearProperty("app.x");
+        assertFalse(composite.containsKey("x"));
+        assertFalse(composite.containsKey("app.x"));
+    }
+
+    @Test
+    public void updatesWithNullValues() throws ConfigException {
+        SettableConfig child = new DefaultSettableConfig();
+        child.setProperty("a", "1");
+        DefaultCompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("child", child);
+        composite.addConfig("defaults", MapConfig.builder().put("a", "default").build());
+
+        child.setProperty("a", null);
+        assertTrue(composite.containsKey("a"));
+        assertNull(composite.getRawProperty("a"));
+        child.setProperty("a", "2");
+        assertEquals("2", composite.getString("a"));
+    }
+
+    /** Composite of the children from the highest to the lowest precedence, added in the order that gives it. */
+    private static DefaultCompositeConfig composite(boolean reversed, Config... children) throws ConfigException {
+        List<Config> added = Arrays.asList(children.clone());
+        if (reversed) {
+            Collections.reverse(added);
+        }
+        DefaultCompositeConfig composite = new DefaultCompositeConfig(reversed);
+        for (Config child : added) {
+            composite.addConfig(child.getName(), child);
+        }
+        return composite;
+    }
+
+    @Test
+    public void lazyResolution() throws ConfigException {
+        SettableConfig overrides = new DefaultSettableConfig();
+        overrides.setProperty("key", "override");
+        SettableConfig defaults = new DefaultSettableConfig();
+        defaults.setProperty("key", "default");
+        defaults.setProperty("other", "default");
+        com.netflix.archaius.api.config.CompositeConfig composite = DefaultCompositeConfig.builder()
+                .withConfig("overrides", overrides)
+                .withConfig("defaults", defaults)
+                .withLazyResolution()
+                .build();
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        composite.addListener(listener);
+
+        assertEquals("override", composite.getString("key"));
+        assertFalse(composite.containsKey("missing"));
+        ConfigSnapshot snapshot = composite.snapshot();
+        long generation = composite.getGeneration();
+
+        // Both the negative result and the value resolved from the updated child are forgotten
+        defaults.setProperty("missing", "default");
+        assertTrue(composite.containsKey("missing"));
+        overrides.clearProperty("key");
+        assertEquals("default", composite.getString("key"));
+        verify(listener, times(2)).onConfigUpdated(any());
+        assertTrue(composite.getGeneration() > generation);
+
+        assertEquals("override", snapshot.getString("key", null));
+        assertFalse(snapshot.containsKey("missing"));
+        assertEquals(Sets.newHashSet("key", "other", "missing"), Sets.newHashSet(composite.keys()));
+    }
+
     private PollingDynamicConfig createPollingDynamicConfig(
             String key1, String value1, String key2, String value2, AccessMonitorUtil accessMonitorUtil) throws Exception {
         ManualPollingStrategy strategy = new ManualPollingStrategy();
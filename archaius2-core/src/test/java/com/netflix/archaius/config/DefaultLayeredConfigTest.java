@@ -17,16 +17,19 @@ import org.mockito.Mockito;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -322,6 +325,233 @@ public class DefaultLayeredConfigTest {
         verify(accessMonitorUtil, times(6)).registerUsage((any()));
     }
 
+    @Test
+    public void addConfigsNotifiesOnce() {
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.RUNTIME, MapConfig.builder().put("key", "runtime").build());
+        config.addListener(listener);
+
+        config.addConfigs(Layers.LIBRARY, Arrays.asList(
+                MapConfig.builder().name("lib1").put("key", "lib1").put("lib", "lib1").build(),
+                MapConfig.builder().name("lib2").put("key", "lib2").put("lib", "lib2").build()));
+
+        Mockito.verify(listener, Mockito.times(1)).onConfigUpdated(any());
+        assertEquals("runtime", config.getString("key"));
+        // Later insertions take precedence within a layer
+        assertEquals("lib2", config.getString("lib"));
+        assertEquals(2, config.getConfigsAtLayer(Layers.LIBRARY).size());
+    }
+
+    @Test
+    public void builderAddsAllLayers() {
+        LayeredConfig config = DefaultLayeredConfig.builder()
+                .withName("built")
+                .withConfig(Layers.DEFAULT, MapConfig.builder().put("key", "default").put("default", "default").build())
+                .withConfig(Layers.APPLICATION, MapConfig.builder().put("key", "application").build())
+                .withConfig(Layers.LIBRARY, MapConfig.builder().put("key", "library").build())
+                .build();
+
+        assertEquals("built", config.getName());
+        assertEquals("application", config.getString("key"));
+        assertEquals("default", config.getString("default"));
+    }
+
+    @Test
+    public void replaceConfigsReplacesByName() {
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.LIBRARY, MapConfig.builder().name("a").put("a", "1").build());
+        config.addConfig(Layers.LIBRARY, MapConfig.builder().name("b").put("b", "1").build());
+        config.addListener(listener);
+
+        config.replaceConfigs(Layers.LIBRARY, Collections.singletonList(MapConfig.builder().name("a").put("a", "2").build()));
+
+        Mockito.verify(listener, Mockito.times(1)).onConfigUpdated(any());
+        assertEquals("2", config.getString("a"));
+        assertEquals("1", config.getString("b"));
+        assertEquals(2, config.getConfigsAtLayer(Layers.LIBRARY).size());
+    }
+
+    @Test
+    public void removeConfigOnlyRemovesNamedConfig() {
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.LIBRARY, MapConfig.builder().name("a").put("a", "1").build());
+        config.addConfig(Layers.LIBRARY, MapConfig.builder().name("b").put("b", "1").build());
+
+        assertTrue(config.removeConfig(Layers.LIBRARY, "a").isPresent());
+        assertFalse(config.containsKey("a"));
+        assertEquals("1", config.getString("b"));
+    }
+
+    @Test
+    public void childUpdatesResolveAgainstHigherLayers() {
+        DefaultLayeredConfig config = new DefaultLayeredConfig();
+        SettableConfig application = new DefaultSettableConfig();
+        application.setProperty("shadowed", "application");
+        SettableConfig library = new DefaultSettableConfig();
+        library.setProperty("lib", "1");
+        SettableConfig defaults = new DefaultSettableConfig();
+        defaults.setProperty("shadowed", "default");
+        config.addConfig(Layers.APPLICATION, application);
+        config.addConfig(Layers.LIBRARY, library);
+        config.addConfig(Layers.DEFAULT, defaults);
+
+        // A default overridden by a higher layer leaves the state untouched
+        CachedState before = config.getState();
+        defaults.setProperty("shadowed", "default2");
+        assertEquals("application", config.getString("shadowed"));
+        assertSame(before, config.getState());
+
+        library.setProperty("lib", "2");
+        library.setProperty("added", "1");
+        assertEquals("2", config.getString("lib"));
+        assertEquals("1", config.getString("added"));
+
+        // Keys removed from a child fall through to lower layers, or disappear
+        application.clearProperty("shadowed");
+        assertEquals("default2", config.getString("shadowed"));
+        library.clearProperty("added");
+        assertFalse(config.containsKey("added"));
+
+        // Keys added to a higher layer override the lower ones
+        library.setProperty("shadowed", "library");
+        assertEquals("library", config.getString("shadowed"));
+        assertEquals(Collections.singletonList(library), config.getConfigsAtLayer(Layers.LIBRARY));
+    }
+
+    @Test
+    public void shadowedUpdatesDoNotNotify() {
+        SettableConfig application = new DefaultSettableConfig();
+        application.setProperty("key", "application");
+        SettableConfig library = new DefaultSettableConfig();
+        library.setProperty("key", "library");
+        library.setProperty("lib", "library");
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.APPLICATION, application);
+        config.addConfig(Layers.LIBRARY, library);
+
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        config.addListener(listener);
+
+        library.setProperty("key", "library2");
+        verify(listener, Mockito.never()).onConfigUpdated(any());
+
+        library.setProperty("lib", "library2");
+        verify(listener, times(1)).onConfigUpdated(any());
+        assertEquals("library2", config.getString("lib"));
+
+        application.clearProperty("key");
+        verify(listener, times(2)).onConfigUpdated(any());
+        assertEquals("library2", config.getString("key"));
+    }
+
+    @Test
+    public void updatesOfViewChildOverAnotherChild() {
+        SettableConfig library = new DefaultSettableConfig();
+        library.setProperty("app.x", "1");
+        LayeredConfig config = new DefaultLayeredConfig();
+        // The view forwards listeners to the library, so its updates arrive as events of the library
+        config.addConfig(Layers.APPLICATION, new PrefixedViewConfig("app", library));
+        config.addConfig(Layers.LIBRARY, library);
+        assertEquals("1", config.getString("x"));
+
+        library.setProperty("app.x", "2");
+        assertEquals("2", config.getString("x"));
+        assertEquals("2", config.getString("app.x"));
+
+        library.clearProperty("app.x");
+        assertFalse(config.containsKey("x"));
+        assertFalse(config.containsKey("app.x"));
+    }
+
+    @Test
+    public void updatesWithNullValues() {
+        SettableConfig child = new DefaultSettableConfig();
+        child.setProperty("a", "1");
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.APPLICATION, child);
+        ConfigListener listener = Mockito.mock(ConfigListener.class);
+        config.addListener(listener);
+
+        child.setProperty("a", null);
+        assertNull(config.getRawProperty("a"));
+        child.setProperty("b", null);
+        assertTrue(config.containsKey("b"));
+        child.setProperty("a", "2");
+        assertEquals("2", config.getString("a"));
+        verify(listener, times(3)).onConfigUpdated(any());
+    }
+
+    @Test
+    public void generations() {
+        SettableConfig application = new DefaultSettableConfig();
+        application.setProperty("a.x", "application");
+        SettableConfig library = new DefaultSettableConfig();
+        library.setProperty("a.x", "library");
+        library.setProperty("b.x", "library");
+        LayeredConfig config = new DefaultLayeredConfig();
+        config.addConfig(Layers.APPLICATION, application);
+        config.addConfig(Layers.LIBRARY, library);
+        long generation = config.getGeneration();
+        long a = config.getGeneration("a.");
+
+        // Shadowed by a higher layer
+        library.setProperty("a.x", "library2");
+        assertEquals(generation, config.getGeneration());
+
+        library.setProperty("b.x", "library2");
+        assertEquals(generation + 1, config.getGeneration());
+        assertEquals(a, config.getGeneration("a."));
+        assertEquals(generation + 1, config.getGeneration("b."));
+
+        application.clearProperty("a.x");
+        assertEquals(generation + 2, config.getGeneration());
+        assertEquals(generation + 2, config.getGeneration("a."));
+        assertEquals("library2", config.getString("a.x"));
+
+        config.addConfig(Layers.DEFAULT, MapConfig.builder().put("c.x", "default").build());
+        assertEquals(generation + 3, config.getGeneration());
+        assertEquals(generation + 2, config.getGeneration("a."));
+        assertEquals(generation + 3, config.getGeneration("c."));
+    }
+
+    @Test
+    public void lazyResolution() {
+        AtomicInteger libraryReads = new AtomicInteger();
+        SettableConfig application = new DefaultSettableConfig();
+        application.setProperty("key", "application");
+        SettableConfig library = new DefaultSettableConfig() {
+            @Override
+            public Object getRawPropertyUninstrumented(String key) {
+                libraryReads.incrementAndGet();
+                return super.getRawPropertyUninstrumented(key);
+            }
+        };
+        library.setProperty("key", "library");
+        library.setProperty("lib", "library");
+        LayeredConfig config = DefaultLayeredConfig.builder()
+                .withConfig(Layers.APPLICATION, application)
+                .withConfig(Layers.LIBRARY, library)
+                .withLazyResolution()
+                .build();
+
+        assertEquals("application", config.getString("key"));
+        assertEquals("library", config.getString("lib"));
+        assertEquals("library", config.getString("lib"));
+        assertEquals(1, libraryReads.get());
+
+        // Keys resolved from a higher layer are kept, keys resolved from the updated child are read again
+        library.setProperty("lib", "library2");
+        assertEquals("application", config.getString("key"));
+        assertEquals("library2", config.getString("lib"));
+        assertEquals(2, libraryReads.get());
+
+        application.clearProperty("key");
+        assertEquals("library", config.getString("key"));
+        assertEquals(Sets.newHashSet("key", "lib"), Sets.newHashSet(config.keys()));
+    }
+
     private PollingDynamicConfig createPollingDynamicConfig(
             String key1, String value1, String key2, String value2, AccessMonitorUtil accessMonitorUtil) throws Exception {
         ManualPollingStrategy strategy = new ManualPollingStrategy();
@@ -14,6 +14,54 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DefaultSettableConfigTest {
 
+    @Test
+    public void testGenerations() {
+        SettableConfig config = new DefaultSettableConfig();
+        assertEquals(0, config.getGeneration());
+        assertEquals(0, config.getGeneration("a."));
+
+        config.setProperty("a.x", "1");
+        assertEquals(1, config.getGeneration());
+        assertEquals(1, config.getGeneration("a."));
+
+        // Setting the same value is not a change
+        config.setProperty("a.x", "1");
+        config.clearProperty("missing");
+        assertEquals(1, config.getGeneration());
+
+        config.setProperty("b.x", "1");
+        assertEquals(2, config.getGeneration());
+        assertEquals(1, config.getGeneration("a."));
+        assertEquals(2, config.getGeneration("b."));
+
+        Properties props = new Properties();
+        props.put("a.x", "2");
+        props.put("b.x", "1");
+        config.setProperties(props);
+        assertEquals(3, config.getGeneration());
+        assertEquals(3, config.getGeneration("a."));
+        assertEquals(2, config.getGeneration("b."));
+
+        config.clearProperty("a.x");
+        assertEquals(4, config.getGeneration("a."));
+
+        config.setProperty("a.y", null);
+        assertEquals(5, config.getGeneration("a."));
+    }
+
+    @Test
+    public void nullPropertyNames() {
+        SettableConfig config = new DefaultSettableConfig();
+        config.setProperty("a", "1");
+
+        NullPointerException e = assertThrows(NullPointerException.class, () -> config.setProperty(null, "1"));
+        assertEquals("Property name must not be null", e.getMessage());
+        config.clearProperty(null);
+        assertFalse(config.containsKey(null));
+        assertEquals(Sets.newHashSet("a"), Sets.newHashSet(config.keys()));
+        assertEquals(1, config.getGeneration());
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     public void testGetKeys() {
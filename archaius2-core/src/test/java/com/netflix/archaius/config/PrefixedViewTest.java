@@ -26,6 +26,7 @@ import org.mockito.Mockito;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -84,6 +85,63 @@ public class PrefixedViewTest {
         Mockito.verify(listener, Mockito.times(1)).onConfigUpdated(any());
     }
 
+    @Test
+    public void viewFollowsParentStateWithoutCopying() throws ConfigException {
+        SettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("foo.bar", "value");
+        settable.setProperty("other.bar", "value");
+
+        com.netflix.archaius.api.config.CompositeConfig config = DefaultCompositeConfig.builder()
+                .withConfig("settable", settable)
+                .build();
+
+        PrefixedViewConfig prefix = (PrefixedViewConfig) config.getPrefixedView("foo");
+        CachedState original = prefix.getState();
+
+        settable.setProperty("other.bar", "new");
+        settable.setProperty("foobar", "value");
+        assertNotSame(original, prefix.getState());
+        assertEquals(Sets.newHashSet("bar"), Sets.newHashSet(prefix.keys()));
+
+        settable.setProperty("foo.baz", "value");
+        assertEquals("value", prefix.getString("baz"));
+        assertEquals("value", prefix.getString("bar"));
+        assertEquals(Sets.newHashSet("bar", "baz"), Sets.newHashSet(prefix.keys()));
+    }
+
+    @Test
+    public void viewOverNonDependentConfigReadsThrough() {
+        SettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("foo.bar", "value");
+
+        Config prefix = settable.getPrefixedView("foo");
+        assertEquals("value", prefix.getString("bar"));
+
+        settable.setProperty("foo.baz", "other");
+        assertEquals("other", prefix.getString("baz"));
+        assertEquals(Sets.newHashSet("bar", "baz"), Sets.newHashSet(prefix.keys()));
+    }
+
+    @Test
+    public void nestedPrefixesUseParentIndex() throws ConfigException {
+        com.netflix.archaius.api.config.CompositeConfig config = DefaultCompositeConfig.builder()
+                .withConfig("map", MapConfig.builder()
+                        .put("foo.bar.a", "1")
+                        .put("foo.bar.b", "2")
+                        .put("foo.baz", "3")
+                        .put("foo", "4")
+                        .put("fop.bar.a", "5")
+                        .build())
+                .build();
+
+        Config foo = config.getPrefixedView("foo");
+        assertEquals(Sets.newHashSet("bar.a", "bar.b", "baz"), Sets.newHashSet(foo.keys()));
+
+        Config bar = foo.getPrefixedView("bar");
+        assertEquals(Sets.newHashSet("a", "b"), Sets.newHashSet(bar.keys()));
+        assertEquals("2", bar.getString("b"));
+    }
+
     @Test
     public void trailingDotAllowed() {
         SettableConfig settable = new DefaultSettableConfig();
@@ -154,6 +212,30 @@ public class PrefixedViewTest {
         assertEquals(Sets.newHashSet("prop1", "prop2"), Sets.newHashSet(keys));
     }
 
+    @Test
+    public void generationsOfViewOverComposite() throws ConfigException {
+        SettableConfig child = new DefaultSettableConfig();
+        child.setProperty("foo.a.x", "1");
+        DefaultCompositeConfig composite = new DefaultCompositeConfig();
+        composite.addConfig("child", child);
+        Config view = composite.getPrefixedView("foo");
+
+        long generation = view.getGeneration();
+        long aGeneration = view.getGeneration("a.");
+        long bGeneration = view.getGeneration("b.");
+
+        child.setProperty("bar.x", "1");
+        assertEquals(generation, view.getGeneration());
+
+        child.setProperty("foo.a.x", "2");
+        assertTrue(view.getGeneration("a.") > aGeneration);
+        assertEquals(bGeneration, view.getGeneration("b."));
+
+        // A key added with a null value is a change too
+        child.setProperty("foo.b.x", null);
+        assertTrue(view.getGeneration("b.") > bGeneration);
+    }
+
     @Test
     public void testKeysIterableModificationThrows() {
         Config config = MapConfig.builder()
@@ -4,6 +4,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.ConfigListener;
+import com.netflix.archaius.api.ConfigSnapshot;
 import com.netflix.archaius.api.Decoder;
 import com.netflix.archaius.api.PropertyDetails;
 import com.netflix.archaius.api.config.SettableConfig;
@@ -107,6 +108,22 @@ public class PrivateViewTest {
         Mockito.verify(listener, Mockito.times(1)).onConfigAdded(any());
         Mockito.verify(listener, Mockito.times(1)).onConfigUpdated(any());
     }
+    @Test
+    public void privateViewSharesParentState() throws ConfigException {
+        SettableConfig settable = new DefaultSettableConfig();
+        settable.setProperty("foo.bar", "original");
+        DefaultCompositeConfig config = (DefaultCompositeConfig) DefaultCompositeConfig.builder()
+                .withConfig("settable", settable)
+                .build();
+
+        PrivateViewConfig privateView = (PrivateViewConfig) config.getPrivateView();
+        assertSame(config.getState(), privateView.getState());
+
+        settable.setProperty("foo.bar", "new");
+        assertSame(config.getState(), privateView.getState());
+        assertEquals("new", privateView.getString("foo.bar"));
+    }
+
     @Test
     public void unusedPrivateViewIsGarbageCollected() {
         SettableConfig sourceConfig = new DefaultSettableConfig();
@@ -177,6 +194,41 @@ public class PrivateViewTest {
         assertThrows(UnsupportedOperationException.class, ((Collection<String>) config.keys())::clear);
     }
 
+    @Test
+    public void snapshotAndGenerationOfViewOverSettableConfig() {
+        SettableConfig parent = new DefaultSettableConfig();
+        parent.setProperty("a", "1");
+        Config view = parent.getPrivateView();
+
+        ConfigSnapshot snapshot = view.snapshot();
+        long generation = view.getGeneration();
+        parent.setProperty("a", "2");
+
+        // The view reads through to the parent, so the snapshot must be a copy and the generation the parent's
+        assertEquals("1", snapshot.getString("a", null));
+        assertEquals("2", view.getString("a"));
+        assertEquals(parent.getGeneration(), view.getGeneration());
+        assertTrue(view.getGeneration() > generation);
+    }
+
+    @Test
+    public void readThroughStateReadsAndIteratesTheSameEntries() {
+        SettableConfig parent = new DefaultSettableConfig();
+        parent.setProperty("a", "1");
+        Map<String, Object> data = ViewStates.of(parent).getData();
+
+        // Point reads go to the parent until the entries are iterated
+        parent.setProperty("a", "2");
+        assertEquals("2", data.get("a"));
+        assertEquals(Sets.newHashSet("a"), new HashSet<>(data.keySet()));
+
+        parent.setProperty("a", "3");
+        parent.setProperty("b", "1");
+        assertEquals("2", data.get("a"));
+        assertFalse(data.containsKey("b"));
+        assertEquals(Sets.newHashSet("a"), new HashSet<>(data.keySet()));
+    }
+
     @Test
     public void instrumentationNotEnabled() throws Exception {
         Config config = MapConfig.builder()
@@ -0,0 +1,118 @@
+package com.netflix.archaius.config.polling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileWatchPollingStrategyTest {
+    private Path directory;
+    private Path file;
+    private FileWatchPollingStrategy strategy;
+    private final AtomicInteger updates = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archaius");
+        file = directory.resolve("config.properties");
+        write(file, "a=1");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (strategy != null) {
+            strategy.shutdown();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitUpdates(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (updates.get() < expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(expected, updates.get());
+    }
+
+    @Test
+    public void burstOfWritesTriggersSingleUpdate() throws Exception {
+        strategy = FileWatchPollingStrategy.builder()
+                .withFile(file)
+                .withDebounce(500, TimeUnit.MILLISECONDS)
+                .withStatInterval(1, TimeUnit.HOURS)
+                .build();
+        strategy.execute(updates::incrementAndGet);
+        assertEquals(1, updates.get());
+
+        for (int i = 0; i < 5; i++) {
+            write(file, "a=" + i + "0");
+        }
+        awaitUpdates(2);
+
+        // Nothing changed since the last update
+        TimeUnit.SECONDS.sleep(1);
+        assertEquals(2, updates.get());
+    }
+
+    @Test
+    public void atomicRenameTriggersUpdate() throws Exception {
+        strategy = FileWatchPollingStrategy.builder()
+                .withFile(file)
+                .withDebounce(50, TimeUnit.MILLISECONDS)
+                .withStatInterval(1, TimeUnit.HOURS)
+                .build();
+        strategy.execute(updates::incrementAndGet);
+
+        Path temp = directory.resolve("config.properties.tmp");
+        write(temp, "a=2");
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        awaitUpdates(2);
+    }
+
+    @Test
+    public void statFallbackDetectsChanges() throws Exception {
+        strategy = FileWatchPollingStrategy.builder()
+                .withFile(file)
+                .withWatchService(false)
+                .withStatInterval(50, TimeUnit.MILLISECONDS)
+                .build();
+        strategy.execute(updates::incrementAndGet);
+
+        write(file, "a=changed");
+        awaitUpdates(2);
+    }
+
+    @Test
+    public void failedCallbackIsRetried() throws Exception {
+        strategy = FileWatchPollingStrategy.builder()
+                .withFile(file)
+                .withDebounce(50, TimeUnit.MILLISECONDS)
+                .withStatInterval(100, TimeUnit.MILLISECONDS)
+                .build();
+        strategy.execute(() -> {
+            if (updates.incrementAndGet() == 2) {
+                throw new RuntimeException("Partial file");
+            }
+        });
+
+        write(file, "a=partial");
+        awaitUpdates(3);
+    }
+}
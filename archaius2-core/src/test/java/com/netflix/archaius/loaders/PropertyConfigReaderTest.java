@@ -19,9 +19,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.netflix.archaius.api.Config;
 import com.netflix.archaius.api.StrInterpolator;
@@ -80,4 +86,26 @@ public class PropertyConfigReaderTest {
         assertEquals("200", config.getString("cascaded.property"));
         assertEquals("true", config.getString("override.internal.style.next"));
     }
+
+    @Test
+    public void resourceLookupsAreCachedPerClassLoader() throws ConfigException {
+        AtomicInteger lookups = new AtomicInteger();
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                lookups.incrementAndGet();
+                return super.getResources(name);
+            }
+        };
+
+        PropertiesConfigReader reader = new PropertiesConfigReader();
+        assertTrue(reader.canLoad(loader, "application"));
+        Config config = reader.load(loader, "application", CommonsStrInterpolator.INSTANCE, key -> null);
+        assertEquals("true", config.getString("application.loaded"));
+        assertEquals(1, lookups.get());
+
+        assertFalse(reader.canLoad(loader, "doesNotExist"));
+        assertFalse(reader.canLoad(loader, "doesNotExist"));
+        assertEquals(2, lookups.get());
+    }
 }
@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,6 +27,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -34,7 +42,11 @@ import java.util.function.Function;
 import org.mockito.Mockito;
 
 import com.netflix.archaius.DefaultPropertyFactory;
+import com.netflix.archaius.api.BooleanProperty;
 import com.netflix.archaius.api.Config;
+import com.netflix.archaius.api.DoubleProperty;
+import com.netflix.archaius.api.IntProperty;
+import com.netflix.archaius.api.LongProperty;
 import com.netflix.archaius.api.Property;
 import com.netflix.archaius.api.Property.Subscription;
 import com.netflix.archaius.api.PropertyFactory;
@@ -48,9 +60,13 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @SuppressWarnings("deprecation")
@@ -159,6 +175,51 @@ public class PropertyTest {
         assertEquals(CustomType.ONE_TWO, customTypeProp.get());
     }
 
+    @Test
+    public void testPrimitiveTypes() {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+
+        IntProperty intProp = factory.getProperty("int").asIntProperty(1);
+        LongProperty longProp = factory.getProperty("long").asLongProperty(2L);
+        DoubleProperty doubleProp = factory.getProperty("double").asDoubleProperty(3.0);
+        BooleanProperty booleanProp = factory.getProperty("boolean").asBooleanProperty(true);
+
+        assertEquals(1, intProp.getAsInt());
+        assertEquals(2L, longProp.getAsLong());
+        assertEquals(3.0, doubleProp.getAsDouble(), 0.0001);
+        assertTrue(booleanProp.getAsBoolean());
+
+        config.setProperty("int", "10");
+        config.setProperty("long", "20");
+        config.setProperty("double", "30.5");
+        config.setProperty("boolean", "false");
+
+        assertEquals(10, intProp.getAsInt());
+        assertEquals(Integer.valueOf(10), intProp.get());
+        assertEquals(20L, longProp.getAsLong());
+        assertEquals(30.5, doubleProp.getAsDouble(), 0.0001);
+        assertFalse(booleanProp.getAsBoolean());
+
+        // Invalid and cleared values fall back to the default
+        config.setProperty("int", "notanint");
+        assertEquals(1, intProp.getAsInt());
+        config.setProperty("int", "11");
+        config.clearProperty("long");
+        assertEquals(11, intProp.getAsInt());
+        assertEquals(2L, longProp.getAsLong());
+
+        AtomicInteger current = new AtomicInteger();
+        Subscription subscription = intProp.subscribe(current::set);
+        config.setProperty("int", "12");
+        assertEquals(12, current.get());
+        subscription.unsubscribe();
+        config.setProperty("int", "13");
+        assertEquals(12, current.get());
+
+        assertEquals("13", intProp.map(String::valueOf).get());
+    }
+
     @Test
     public void testCollectionTypes() {
         SettableConfig config = new DefaultSettableConfig();
@@ -227,6 +288,224 @@ public class PropertyTest {
         assertThrows(UnsupportedOperationException.class, () -> emptyMap.put("c", 3));
     }
 
+    @Test
+    public void testSingleThreadRecomputesChangedValue() throws Exception {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        config.setProperty("foo", "1");
+
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Property<Integer> prop = factory.getProperty("foo").asType(value -> {
+            if (value.equals("2")) {
+                computations.incrementAndGet();
+                computing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Integer.valueOf(value);
+        }, "0");
+        assertEquals(1, prop.get().intValue());
+
+        config.setProperty("foo", "2");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> refreshed = executor.submit(prop::get);
+            computing.await();
+
+            // Readers keep getting the previous value while another thread recomputes it
+            assertEquals(1, prop.get().intValue());
+            assertEquals(1, prop.get().intValue());
+            release.countDown();
+
+            assertEquals(2, refreshed.get().intValue());
+            assertEquals(2, prop.get().intValue());
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChangeDuringRefreshIsNotified() throws Exception {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        config.setProperty("foo", "1");
+
+        Thread caller = Thread.currentThread();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Property<Integer> prop = factory.getProperty("foo").asType(value -> {
+            // Only the refresh started on the other thread is held up
+            if (Thread.currentThread() != caller) {
+                computing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Integer.valueOf(value);
+        }, "0");
+        assertEquals(1, prop.get().intValue());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Notified before the subscription below, starts a refresh of the same property on another thread
+            factory.get("foo", String.class).subscribe(value -> {
+                executor.submit(prop::get);
+                try {
+                    computing.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            List<Integer> notified = new CopyOnWriteArrayList<>();
+            prop.subscribe(notified::add);
+
+            config.setProperty("foo", "2");
+            assertEquals(Collections.singletonList(2), notified);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDerivedPropertiesAreShared() {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        config.setProperty("foo", "10");
+
+        Property<Integer> first = factory.getProperty("foo").asInteger(5);
+        assertSame(first, factory.getProperty("foo").asInteger(5));
+        assertNotSame(first, factory.getProperty("foo").asInteger(6));
+        assertSame(first.orElseGet("bar"), first.orElseGet("bar"));
+
+        Function<Integer, String> mapper = String::valueOf;
+        assertSame(first.map(mapper), first.map(mapper));
+        assertSame(factory.getProperty("foo").asIntProperty(1), factory.getProperty("foo").asIntProperty(1));
+        assertNotSame(factory.getProperty("foo").asIntProperty(1), factory.getProperty("foo").asLongProperty(1));
+
+        config.setProperty("foo", "20");
+        assertEquals(20, factory.getProperty("foo").asInteger(5).get().intValue());
+    }
+
+    private static class Owner {
+        volatile Integer value;
+
+        void onChange(Integer value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void testOwnedSubscriptionsAreRemovedWhenOwnerIsCollected() throws InterruptedException {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        Property<Integer> prop = factory.getProperty("foo").asInteger(1);
+
+        Owner owner = new Owner();
+        prop.subscribe(owner, Owner::onChange);
+        Subscription subscription = prop.subscribe(value -> {});
+        assertEquals(2, factory.getListenerCount());
+
+        config.setProperty("foo", "2");
+        assertEquals(2, owner.value.intValue());
+
+        subscription.unsubscribe();
+        assertEquals(1, factory.getListenerCount());
+
+        owner = null;
+        for (int i = 0; i < 100 && factory.getClearedListenerCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            factory.invalidate();
+        }
+        assertEquals(1, factory.getClearedListenerCount());
+        assertEquals(0, factory.getListenerCount());
+    }
+
+    @Test
+    public void testParallelNotification() {
+        SettableConfig config = new DefaultSettableConfig();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DefaultPropertyFactory factory = new DefaultPropertyFactory(config, executor, 100);
+            Property<Integer> prop = factory.getProperty("foo").asInteger(0);
+
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            List<AtomicInteger> received = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                AtomicInteger value = new AtomicInteger();
+                received.add(value);
+                prop.subscribe(v -> {
+                    threads.add(Thread.currentThread());
+                    value.set(v);
+                });
+            }
+
+            config.setProperty("foo", "1");
+            config.setProperty("foo", "2");
+            received.forEach(value -> assertEquals(2, value.get()));
+            if (Runtime.getRuntime().availableProcessors() > 1) {
+                assertTrue(threads.size() > 1);
+            }
+            assertTrue(factory.getLastNotificationNanos() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testDebouncedSubscription() throws InterruptedException {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        Property<Integer> prop = factory.getProperty("foo").asInteger(0);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        prop.subscribeDebounced(received::add, 200, TimeUnit.MILLISECONDS, Runnable::run);
+        for (int i = 1; i <= 5; i++) {
+            config.setProperty("foo", String.valueOf(i));
+        }
+        awaitSize(received, 1);
+        Thread.sleep(300);
+        assertEquals(Collections.singletonList(5), received);
+    }
+
+    @Test
+    public void testRateLimitedSubscription() throws InterruptedException {
+        SettableConfig config = new DefaultSettableConfig();
+        DefaultPropertyFactory factory = DefaultPropertyFactory.from(config);
+        Property<Integer> prop = factory.getProperty("foo").asInteger(0);
+
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        Subscription subscription = prop.subscribeRateLimited(received::add, 500, TimeUnit.MILLISECONDS, Runnable::run);
+        config.setProperty("foo", "1");
+        awaitSize(received, 1);
+        for (int i = 2; i <= 5; i++) {
+            config.setProperty("foo", String.valueOf(i));
+        }
+        awaitSize(received, 2);
+        assertEquals(Arrays.asList(1, 5), received);
+
+        subscription.unsubscribe();
+        config.setProperty("foo", "6");
+        Thread.sleep(700);
+        assertEquals(Arrays.asList(1, 5), received);
+    }
+
     @Test
     public void testUpdateDynamicChild() {
         SettableConfig config = new DefaultSettableConfig();
@@ -0,0 +1,100 @@
+package com.netflix.archaius.readers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PropertiesParserTest {
+
+    private static Map<String, String> parse(byte[] bytes) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        PropertiesParser.parse(new ByteArrayInputStream(bytes), map);
+        return map;
+    }
+
+    private static Map<String, String> load(byte[] bytes) throws IOException {
+        Properties props = new Properties();
+        props.load(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        Map<String, String> map = new HashMap<>();
+        props.forEach((k, v) -> map.put((String) k, (String) v));
+        return map;
+    }
+
+    private static void assertSameAsProperties(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        assertEquals(load(bytes), parse(bytes), content);
+    }
+
+    @Test
+    public void matchesPropertiesLoad() throws IOException {
+        assertSameAsProperties("a=1\nb:2\nc 3\nd\t=\t4\ne  :  5  \n   f=6\n");
+        assertSameAsProperties("# comment\n! comment\n  # indented comment\n\n\n a = b\n#trailing\\\nnot.continued=1");
+        assertSameAsProperties("key=first\\\n    second\\\n\tthird\nnext=value");
+        assertSameAsProperties("key=first\\\r\n  second\r\nnext=value\rlast=\\\r  one");
+        assertSameAsProperties("key=ends with backslash\\\\\nother=\\\n\nempty.after.continuation");
+        assertSameAsProperties("k\\=ey=va\\=lue\nk\\:2:v\nk\\ 3 v\\t\\n\\r\\f\\x\\\\");
+        assertSameAsProperties("unicode=\\u00e9\\u4E2D\nutf8=\u00E9t\u00E9 \u4E2D\u6587 \uD83D\uDE00\n\\u0041key=v");
+        assertSameAsProperties("onlykey\nkey=\nkey2=:=value\nkey3 = = value");
+        assertSameAsProperties("a=1\na=2\n");
+        assertSameAsProperties("continued at end=value\\");
+        assertSameAsProperties("a=1\n\\\n");
+        assertSameAsProperties("\uFEFFbom=1");
+        assertSameAsProperties("");
+    }
+
+    @Test
+    public void matchesPropertiesLoadForRandomInput() throws IOException {
+        char[] alphabet = {'a', 'b', '.', ' ', '\t', '\f', '=', ':', '#', '!', '\\', '\\', 'n', 't', '\n', '\r', '\u00E9', '\u4E2D'};
+        Random random = new Random(1234);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            // A line holding only a continuation is followed by a comment on Java 9+ but not on Java 8
+            if (!sb.toString().matches("(?s)(.*[\r\n])?[ \t\f]*\\\\[\r\n].*")) {
+                assertSameAsProperties(sb.toString());
+            }
+        }
+    }
+
+    @Test
+    public void malformedUtf8IsReplaced() throws IOException {
+        byte[] bytes = {'a', '=', (byte) 0xC3, 'b', (byte) 0xFF, '\n', 'c', '=', (byte) 0xE4, (byte) 0xB8};
+        Map<String, String> map = parse(bytes);
+        assertEquals("\uFFFDb\uFFFD", map.get("a"));
+        assertEquals("\uFFFD", map.get("c"));
+    }
+
+    @Test
+    public void malformedUnicodeEscapeFails() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("key=\\u12".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("key=\\u12zz".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void longLinesGrowBuffers() throws IOException {
+        StringBuilder sb = new StringBuilder("key.");
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i % 10);
+        }
+        sb.append("=\\u0041");
+        for (int i = 0; i < 5000; i++) {
+            sb.append("\\t");
+        }
+        assertSameAsProperties(sb.toString());
+    }
+}
@@ -1,9 +1,16 @@
 package com.netflix.archaius.readers;
 
+import com.netflix.archaius.config.polling.PollingResponse;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Nikos Michalakis <nikos@netflix.com>
@@ -26,4 +33,43 @@ public class URLConfigReaderTest {
     public void testStringConstructorMalformedUrl() {
         assertThrows(RuntimeException.class, () -> new URLConfigReader("bad url"));
     }
+
+    @Test
+    public void unchangedFilesAreNotParsedAgain() throws Exception {
+        Path file = Files.createTempFile("archaius", ".properties");
+        try {
+            Files.write(file, "a=1\n".getBytes(StandardCharsets.UTF_8));
+            URLConfigReader reader = new URLConfigReader(file.toUri().toURL());
+
+            PollingResponse response = reader.call();
+            assertTrue(response.hasData());
+            assertEquals("1", response.getToAdd().get("a"));
+            assertFalse(reader.call().hasData());
+
+            Files.write(file, "a=22\n".getBytes(StandardCharsets.UTF_8));
+            response = reader.call();
+            assertTrue(response.hasData());
+            assertEquals("22", response.getToAdd().get("a"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void largeFilesAreReadThroughMapping() throws Exception {
+        Path file = Files.createTempFile("archaius", ".properties");
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                sb.append("some.property").append(i).append(" = value").append(i).append('\n');
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+            PollingResponse response = new URLConfigReader(file.toUri().toURL()).call();
+            assertEquals(20000, response.getToAdd().size());
+            assertEquals("value19999", response.getToAdd().get("some.property19999"));
+        } finally {
+            Files.delete(file);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.netflix.archaius.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactHashMapTest {
+
+    @Test
+    public void matchesSourceMap() {
+        Random random = new Random(7);
+        for (int size : new int[] {1, 2, 3, 10, 1000, 50000}) {
+            Map<String, String> source = new HashMap<>();
+            while (source.size() < size) {
+                source.put("key" + random.nextInt(size * 4), String.valueOf(random.nextInt(10)));
+            }
+            CompactHashMap<String, String> map = CompactHashMap.copyOf(source);
+
+            assertEquals(source, map);
+            assertEquals(source.hashCode(), map.hashCode());
+            assertEquals(size, map.size());
+            source.forEach((k, v) -> {
+                assertEquals(v, map.get(k));
+                assertTrue(map.containsKey(k));
+            });
+            for (int i = 0; i < 100; i++) {
+                String missing = "missing" + i;
+                assertNull(map.get(missing));
+                assertFalse(map.containsKey(missing));
+            }
+        }
+    }
+
+    @Test
+    public void keepsIterationOrder() {
+        Map<String, Object> source = new LinkedHashMap<>();
+        for (int i = 100; i > 0; i--) {
+            source.put("key" + i, i);
+        }
+        CompactHashMap<String, Object> map = CompactHashMap.copyOf(source);
+
+        assertEquals(new ArrayList<>(source.keySet()), new ArrayList<>(map.keySet()));
+        assertEquals(new ArrayList<>(source.values()), new ArrayList<>(map.values()));
+        assertEquals(new ArrayList<>(source.entrySet()), new ArrayList<>(map.entrySet()));
+        List<String> visited = new ArrayList<>();
+        map.forEach((k, v) -> visited.add(k));
+        assertEquals(new ArrayList<>(source.keySet()), visited);
+    }
+
+    @Test
+    public void nullValuesAndEmptyMaps() {
+        Map<String, String> source = new HashMap<>();
+        source.put("null", null);
+        CompactHashMap<String, String> map = CompactHashMap.copyOf(source);
+        assertTrue(map.containsKey("null"));
+        assertNull(map.get("null"));
+        assertTrue(map.entrySet().contains(new SimpleImmutableEntry<>("null", null)));
+        assertFalse(map.containsKey(null));
+
+        assertSame(CompactHashMap.empty(), CompactHashMap.copyOf(Collections.emptyMap()));
+        assertSame(map, CompactHashMap.copyOf(map));
+        assertThrows(NullPointerException.class, () -> CompactHashMap.copyOf(Collections.singletonMap(null, "value")));
+    }
+
+    @Test
+    public void isImmutable() {
+        CompactHashMap<String, String> map = CompactHashMap.copyOf(Collections.singletonMap("key", "value"));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("other", "value"));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove("key"));
+        Iterator<String> keys = map.keySet().iterator();
+        keys.next();
+        assertThrows(UnsupportedOperationException.class, keys::remove);
+        assertThrows(NoSuchElementException.class, keys::next);
+    }
+}
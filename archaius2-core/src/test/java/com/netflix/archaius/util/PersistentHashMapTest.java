@@ -0,0 +1,137 @@
+package com.netflix.archaius.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentHashMapTest {
+
+    /** Key with a configurable hash code to force collisions. */
+    private static final class Key {
+        private final String name;
+        private final int hash;
+
+        Key(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).name.equals(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    public void plusAndMinusMatchHashMap() {
+        Random random = new Random(42);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < 20000; i++) {
+            // Small hash range so that collision nodes are exercised along with regular ones
+            int id = random.nextInt(2000);
+            Key key = new Key("key" + id, id % 700);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+
+        PersistentHashMap<Key, Integer> actual = map;
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        expected.forEach((k, v) -> assertEquals(v, actual.get(k)));
+        actual.forEach((k, v) -> assertEquals(expected.get(k), v));
+    }
+
+    @Test
+    public void previousVersionsAreNotModified() {
+        PersistentHashMap<String, String> first = PersistentHashMap.<String, String>empty()
+                .plus("a", "1")
+                .plus("b", "2");
+        PersistentHashMap<String, String> second = first.plus("a", "3").minus("b");
+
+        assertEquals("1", first.get("a"));
+        assertEquals("2", first.get("b"));
+        assertEquals(2, first.size());
+        assertEquals("3", second.get("a"));
+        assertFalse(second.containsKey("b"));
+        assertEquals(1, second.size());
+    }
+
+    @Test
+    public void noopUpdatesReturnSameInstance() {
+        String value = "1";
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("a", value);
+        assertSame(map, map.plus("a", value));
+        assertSame(map, map.minus("b"));
+    }
+
+    @Test
+    public void builderDoesNotAffectSourceOrBuiltMaps() {
+        PersistentHashMap.Builder<String, Integer> builder = PersistentHashMap.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.put("key" + i, i);
+        }
+        PersistentHashMap<String, Integer> first = builder.build();
+
+        builder.put("key0", -1).remove("key1").putIfAbsent("key2", -2).put("new", 0);
+        PersistentHashMap<String, Integer> second = builder.build();
+
+        assertEquals(1000, first.size());
+        assertEquals(Integer.valueOf(0), first.get("key0"));
+        assertEquals(Integer.valueOf(1), first.get("key1"));
+        assertNull(first.get("new"));
+
+        assertEquals(1000, second.size());
+        assertEquals(Integer.valueOf(-1), second.get("key0"));
+        assertNull(second.get("key1"));
+        assertEquals(Integer.valueOf(2), second.get("key2"));
+
+        PersistentHashMap<String, Integer> third = second.toBuilder().put("key0", 0).build();
+        assertEquals(Integer.valueOf(-1), second.get("key0"));
+        assertEquals(Integer.valueOf(0), third.get("key0"));
+    }
+
+    @Test
+    public void nullValuesAreAllowed() {
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("a", null);
+        assertTrue(map.containsKey("a"));
+        assertNull(map.get("a"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void iteratorIsReadOnly() {
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("a", "1");
+        Iterator<String> iter = map.keySet().iterator();
+        assertEquals("a", iter.next());
+        assertThrows(UnsupportedOperationException.class, iter::remove);
+        assertThrows(UnsupportedOperationException.class, () -> map.put("b", "2"));
+    }
+}
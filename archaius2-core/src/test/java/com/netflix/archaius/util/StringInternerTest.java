@@ -0,0 +1,57 @@
+package com.netflix.archaius.util;
+
+import com.netflix.archaius.config.polling.PollingResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StringInternerTest {
+
+    @Test
+    public void equalStringsShareAnInstance() {
+        StringInterner interner = new StringInterner();
+        String first = new String("value");
+        String second = new String("value");
+        assertNotSame(first, second);
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertNull(interner.intern(null));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void internAllInternsKeysAndValues() {
+        Map<String, String> first = new HashMap<>();
+        first.put(new String("internAll.key"), new String("internAll.value"));
+        Map<String, String> second = new HashMap<>();
+        second.put(new String("internAll.key"), new String("internAll.value"));
+
+        Map.Entry<String, String> a = StringInterner.internAll(first).entrySet().iterator().next();
+        Map.Entry<String, String> b = StringInterner.internAll(second).entrySet().iterator().next();
+        assertSame(a.getKey(), b.getKey());
+        assertSame(a.getValue(), b.getValue());
+        assertEquals(first, StringInterner.internAll(second));
+    }
+
+    @Test
+    public void deduplicatingPollingResponses() throws Exception {
+        Callable<PollingResponse> reader = PollingResponse.deduplicating(() -> PollingResponse.forSnapshot(
+                Collections.singletonMap(new String("polled.key"), new String("polled.value")),
+                Collections.singletonMap(new String("polled.key"), new String("polled.id"))));
+
+        PollingResponse first = reader.call();
+        PollingResponse second = reader.call();
+        assertSame(first.getToAdd().keySet().iterator().next(), second.getToAdd().keySet().iterator().next());
+        assertSame(first.getToAdd().get("polled.key"), second.getToAdd().get("polled.key"));
+        assertSame(first.getNameToIdsMap().get("polled.key"), second.getNameToIdsMap().get("polled.key"));
+    }
+}
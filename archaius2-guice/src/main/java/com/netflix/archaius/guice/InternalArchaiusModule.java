@@ -33,6 +33,7 @@ import com.netflix.archaius.config.SystemConfig;
 import com.netflix.archaius.interpolate.ConfigStrLookup;
 import com.netflix.archaius.readers.PropertiesConfigReader;
 
+import java.util.LinkedHashMap;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -154,23 +155,30 @@ final class InternalArchaiusModule extends AbstractModule {
     Config getConfig(ConfigParameters params, @Raw CompositeConfig config, ConfigLoader loader) throws Exception {
         CompositeConfig applicationLayer = new DefaultCompositeConfig();
         CompositeConfig remoteLayer = new DefaultCompositeConfig();
-        
-        config.addConfig(RUNTIME_LAYER_NAME,      params.runtimeLayer);
-        config.addConfig(REMOTE_LAYER_NAME,       remoteLayer);
-        config.addConfig(SYSTEM_LAYER_NAME,       SystemConfig.INSTANCE);
-        config.addConfig(ENVIRONMENT_LAYER_NAME,  EnvironmentConfig.INSTANCE);
-        config.addConfig(APPLICATION_LAYER_NAME,  applicationLayer);
-        config.addConfig(LIBRARIES_LAYER_NAME,    params.librariesLayer);
+
+        // Add all layers in a single update so that the composite is only flattened once
+        LinkedHashMap<String, Config> layers = new LinkedHashMap<>();
+        layers.put(RUNTIME_LAYER_NAME,      params.runtimeLayer);
+        layers.put(REMOTE_LAYER_NAME,       remoteLayer);
+        layers.put(SYSTEM_LAYER_NAME,       SystemConfig.INSTANCE);
+        layers.put(ENVIRONMENT_LAYER_NAME,  EnvironmentConfig.INSTANCE);
+        layers.put(APPLICATION_LAYER_NAME,  applicationLayer);
+        layers.put(LIBRARIES_LAYER_NAME,    params.librariesLayer);
         
         // Load defaults layer
         if (params.hasDefaultConfigs()) {
             CompositeConfig defaultLayer = new DefaultCompositeConfig();
-            config.addConfig(DEFAULT_LAYER_NAME,      defaultLayer);
+            LinkedHashMap<String, Config> defaults = new LinkedHashMap<>();
             for (Config c : params.defaultConfigs) {
-                defaultLayer.addConfig(getUniqueName("default"), c);
+                defaults.put(getUniqueName("default"), c);
             }
+            defaultLayer.addConfigs(defaults);
+            layers.put(DEFAULT_LAYER_NAME,      defaultLayer);
         }
+        config.addConfigs(layers);
 
+        // Each override is added before the next one is loaded, so that it may be referenced when loading the following
+        // overrides and the application config, for example to set the cascade's environment
         if (params.hasOverrideResources()) {
             for (String resourceName : params.overrideResources) {
                 applicationLayer.addConfig(resourceName, loader.newLoader().load(resourceName));
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.archaius.config.polling.PollingResponse;
+import com.netflix.archaius.util.StringInterner;
 
 /**
  * Reader for Netflix persisted properties (not yet available in OSS).  
@@ -64,6 +65,7 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
         private ScopePredicate predicate = ScopePredicates.alwaysTrue();
         private ScopedValueResolver resolver = new ScopePriorityPropertyValueResolver();
         private boolean readIdField = false;
+        private boolean deduplicateStrings = false;
                 
         public Builder(Callable<InputStream> reader) {
             this.reader = reader;
@@ -115,6 +117,15 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
             return this;
         }
         
+        /**
+         * Intern the names, values and ids of the resolved properties with {@link StringInterner}, so that successive
+         * polls share a single copy of the strings that didn't change.
+         */
+        public Builder withStringDeduplication(boolean deduplicateStrings) {
+            this.deduplicateStrings = deduplicateStrings;
+            return this;
+        }
+
         public JsonPersistedV2Reader build() {
             return new JsonPersistedV2Reader(this);
         }
@@ -135,6 +146,7 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
     private final String                  valueField;
     private final List<String>            path;
     private final boolean       readIdField;
+    private final boolean       deduplicateStrings;
 
     private JsonPersistedV2Reader(Builder builder) {
         this.reader        = builder.reader;
@@ -146,6 +158,7 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
         this.scopeFields   = builder.scopeFields;
         this.path          = builder.path;
         this.readIdField   = builder.readIdField;
+        this.deduplicateStrings = builder.deduplicateStrings;
     }
     
     @Override
@@ -212,13 +225,13 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
         // Resolve to a single property value
         final Map<String, String> result = new HashMap<String, String>();
         for (Entry<String, List<ScopedValue>> entry : props.entrySet()) {
-            result.put(entry.getKey(), valueResolver.resolve(entry.getKey(), entry.getValue()));
+            result.put(internKey(entry.getKey()), internValue(valueResolver.resolve(entry.getKey(), entry.getValue())));
         }
 
         if (readIdField) {
             final Map<String, String> idResult = new HashMap<>();
             for (Entry<String, List<ScopedValue>> entry : propIds.entrySet()) {
-                idResult.put(entry.getKey(), valueResolver.resolve(entry.getKey(), entry.getValue()));
+                idResult.put(internKey(entry.getKey()), internValue(valueResolver.resolve(entry.getKey(), entry.getValue())));
             }
             return PollingResponse.forSnapshot(result, idResult);
         }
@@ -226,6 +239,14 @@ public class JsonPersistedV2Reader implements Callable<PollingResponse> {
         return PollingResponse.forSnapshot(result);
     }
     
+    private String internKey(String key) {
+        return deduplicateStrings ? StringInterner.keys().intern(key) : key;
+    }
+
+    private String internValue(String value) {
+        return deduplicateStrings ? StringInterner.values().intern(value) : value;
+    }
+
     private static Set<String> immutableSetFrom(String[] values) {
         if (values.length == 0) {
             return Collections.<String>emptySet();
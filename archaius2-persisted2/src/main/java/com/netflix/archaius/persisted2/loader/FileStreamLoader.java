@@ -1,20 +1,39 @@
 package com.netflix.archaius.persisted2.loader;
 
-import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.Callable;
 
+import com.netflix.archaius.util.FileStamp;
+import com.netflix.archaius.util.MappedFiles;
+
+/**
+ * Loader of a local snapshot file.  Large files are memory-mapped and read directly from the mapped buffer.  If the
+ * file has the same size, modification time and identity as when it was last loaded the loader returns null, which
+ * readers treat as a noop, so unchanged snapshots are not parsed again.
+ */
 public class FileStreamLoader implements Callable<InputStream>{
 
-    private String filename;
+    private final Path path;
+    private volatile FileStamp lastStamp;
 
     public FileStreamLoader(String filename) {
-        this.filename = filename;
+        this.path = Paths.get(filename);
     }
-    
+
     @Override
     public InputStream call() throws Exception {
-        return new FileInputStream(filename);
+        // Stamp before reading so that a change made while reading is picked up by the next call
+        FileStamp stamp = FileStamp.of(path);
+        if (stamp.equals(lastStamp)) {
+            // It is expected the reader will treat this as a noop response
+            return null;
+        }
+
+        InputStream input = MappedFiles.newInputStream(MappedFiles.read(path));
+        lastStamp = stamp;
+        return input;
     }
 
 }